@@ -0,0 +1,86 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.alert.AlertEngine;
+import indi.yiyi.stockmonitor.alert.AlertRule;
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.quote.QuoteSubscriptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 价格提醒求值：rules 条规则分布在 symbols 只股票上，每个周期全部股票的价格都有变化
+ * <p>
+ * 价格在 10 元附近随机游走，规则价位与涨跌幅阈值均匀分布在价格附近，因此每个周期都有少量规则触发。
+ * 预先生成 {@value #CYCLES} 个周期的行情轮流使用。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AlertEngineBenchmark {
+
+    private static final int CYCLES = 64;
+
+    @Param({"3000"})
+    public int symbols;
+
+    @Param({"10000"})
+    public int rules;
+
+    private AlertEngine engine;
+    private final List<List<Quote>> cycles = new ArrayList<>();
+    private int cycle;
+    private long now;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<AlertRule> list = new ArrayList<>(rules);
+        for (int i = 0; i < rules; i++) {
+            String code = String.format("%06d", i % symbols);
+            AlertRule.Type type = AlertRule.Type.values()[i % 3];
+            double value = type == AlertRule.Type.MOVE_FROM_OPEN ? 0.5 + random.nextInt(30) / 10.0
+                    : 9.5 + random.nextInt(1000) / 1000.0;
+            list.add(new AlertRule(i, "1", code, type, value, 0));
+        }
+        engine = new AlertEngine(key -> Optional.empty(), new QuoteSubscriptions());
+        engine.reload(list);
+
+        double[] price = new double[symbols];
+        Arrays.fill(price, 10);
+        long ts = 1_760_000_000L;
+        for (int c = 0; c < CYCLES; c++) {
+            List<Quote> quotes = new ArrayList<>(symbols);
+            for (int s = 0; s < symbols; s++) {
+                price[s] = Math.max(1, price[s] + (random.nextInt(21) - 10) / 1000.0);
+                quotes.add(new Quote("1", String.format("%06d", s), "股票" + s, price[s], 10, 0, 0, ts + c * 3L));
+            }
+            cycles.add(quotes);
+        }
+        // 第一个周期只记录价格
+        engine.evaluate(cycles.get(0), 0);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        cycle = (cycle + 1) % CYCLES;
+        now += 3000;
+        return engine.evaluate(cycles.get(cycle), now).size();
+    }
+}
@@ -0,0 +1,65 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.utils.FixedDecimalFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单元格文本格式化：String.format 与 char[] 定点格式化对比
+ * <p>
+ * 每次调用格式化一个单元格，配合 -prof gc 查看每个单元格的分配量（gc.alloc.rate.norm）。
+ * fixedToString 包含生成 String 的开销，对应值变化时的单元格；fixedIntoBuffer 只写缓冲区。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CellFormatBenchmark {
+
+    private final double[] values = new double[1024];
+    private final char[] buf = new char[FixedDecimalFormatter.BUFFER_SIZE];
+    private int i;
+
+    @Setup
+    public void setup() {
+        for (int k = 0; k < values.length; k++) {
+            values[k] = (k * 7919 % 20000 - 10000) / 1000.0;
+        }
+    }
+
+    private double next() {
+        return values[i++ & (values.length - 1)];
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(Locale.CHINA, "%.3f", next());
+    }
+
+    @Benchmark
+    public String stringFormatPercent() {
+        return String.format(Locale.CHINA, "%.2f%%", next());
+    }
+
+    @Benchmark
+    public String fixedToString() {
+        int len = FixedDecimalFormatter.format(next(), 3, (char) 0, buf);
+        return new String(buf, 0, len);
+    }
+
+    @Benchmark
+    public int fixedIntoBuffer() {
+        return FixedDecimalFormatter.format(next(), 2, '%', buf);
+    }
+}
@@ -0,0 +1,108 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.data.Stock;
+import indi.yiyi.stockmonitor.quote.EastMoneyQuoteSource;
+import indi.yiyi.stockmonitor.quote.QuoteSources;
+import indi.yiyi.stockmonitor.quote.QuoteSubscriptions;
+import indi.yiyi.stockmonitor.utils.GroupConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 刷新周期开始时确定拉取批次的开销，分组配置和订阅都没有变化
+ * <p>
+ * rebuild 为原来的做法，每个周期按配置同步各分组的订阅，再取全部订阅的股票重新切分批次；
+ * cached 比较分组快照和订阅的版本，未变化时沿用上次的批次。
+ * {@link GroupConfig} 的数据目录在用户目录下，这里在加载它之前把 user.home 指向临时目录，结束后删除。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FetchPlanBenchmark {
+
+    @Param({"40"})
+    public int groups;
+
+    @Param({"500"})
+    public int stocksPerGroup;
+
+    private Path home;
+    private final QuoteSubscriptions subscriptions = new QuoteSubscriptions();
+    private final List<String> groupNames = new ArrayList<>();
+    private final List<QuoteSubscriptions.Subscription> subs = new ArrayList<>();
+    private EastMoneyQuoteSource source;
+
+    private long syncedGroupsVersion = -1;
+    private List<List<Stock>> plan = List.of();
+    private long planVersion = -1;
+
+    @Setup
+    public void setup() throws IOException {
+        home = Files.createTempDirectory("plan-bench");
+        System.setProperty("user.home", home.toString());
+        source = new EastMoneyQuoteSource(QuoteSources.newHttpClient());
+        for (int g = 0; g < groups; g++) {
+            String name = "分组" + g;
+            GroupConfig.addGroup(name);
+            for (int i = 0; i < stocksPerGroup; i++) {
+                GroupConfig.addStock(name, "1", String.format("%06d", g * stocksPerGroup / 2 + i));
+            }
+            groupNames.add(name);
+            subs.add(subscriptions.subscribe(GroupConfig.getStocksOf(name), quotes -> {
+            }));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        GroupConfig.flush();
+        try (Stream<Path> files = Files.walk(home)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<List<Stock>> rebuild() {
+        for (int g = 0; g < groupNames.size(); g++) {
+            subs.get(g).retain(GroupConfig.getStocksOf(groupNames.get(g)));
+        }
+        return source.partition(subscriptions.activeStocks());
+    }
+
+    @Benchmark
+    public List<List<Stock>> cached() {
+        GroupConfig.Snapshot snapshot = GroupConfig.snapshot();
+        if (snapshot.version() != syncedGroupsVersion) {
+            for (int g = 0; g < groupNames.size(); g++) {
+                subs.get(g).retain(snapshot.stocksOf(groupNames.get(g)));
+            }
+            syncedGroupsVersion = snapshot.version();
+        }
+        long version = subscriptions.getVersion();
+        if (version != planVersion) {
+            plan = source.partition(subscriptions.activeStocks());
+            planVersion = version;
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,90 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.data.Stock;
+import indi.yiyi.stockmonitor.mock.MockExchangeServer;
+import indi.yiyi.stockmonitor.quote.QuoteSource;
+import indi.yiyi.stockmonitor.quote.QuoteSources;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个刷新周期的完整往返：切分批次、并发请求、解析写入 {@link QuoteStore}
+ * <p>
+ * 连接本地模拟行情服务：未设置 endpoint.default 时在进程内启动一个（无注入延迟），
+ * 测得的是客户端自身的开销；连接带延迟、抖动配置的外部模拟服务时则对应弱网下的周期耗时。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FetchRoundTripBenchmark {
+
+    @Param({"EastMoney", "Sina", "Tencent"})
+    public String source;
+
+    @Param({"500"})
+    public int symbols;
+
+    private MockExchangeServer server;
+    private QuoteSource quoteSource;
+    private List<List<Stock>> parts;
+    private final QuoteStore store = new QuoteStore();
+
+    @Setup
+    public void setup() throws IOException {
+        if (System.getProperty("endpoint.default") == null) {
+            MockExchangeServer.Options d = MockExchangeServer.Options.defaults();
+            server = MockExchangeServer.start(new MockExchangeServer.Options(0, symbols, d.tickMillis(),
+                    0, 0, 0, 0));
+            System.setProperty("endpoint.default", server.baseUrl());
+        }
+        quoteSource = QuoteSources.create(source, QuoteSources.newHttpClient());
+
+        List<Stock> stocks = new ArrayList<>(symbols);
+        for (int i = 0; i < symbols; i++) {
+            stocks.add((i & 1) == 0
+                    ? new Stock("1", String.valueOf(600000 + i / 2))
+                    : new Stock("0", String.format("%06d", 1 + i / 2)));
+        }
+        parts = quoteSource.partition(stocks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+            System.clearProperty("endpoint.default");
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(parts.size());
+        for (List<Stock> part : parts) {
+            futures.add(quoteSource.fetchAsync(part, store));
+        }
+        int n = 0;
+        for (CompletableFuture<Integer> f : futures) {
+            n += f.join();
+        }
+        store.drainChanged();
+        return n;
+    }
+}
@@ -0,0 +1,36 @@
+package indi.yiyi.stockmonitor.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 读取 src/jmh/resources/fixtures 下录制的响应体
+ * <p>
+ * 基准测试只使用这些固定数据，不访问网络，不同机器、不同时间的结果可以直接比较。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static byte[] bytes(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("fixture not found: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String text(String name) {
+        return new String(bytes(name), StandardCharsets.UTF_8);
+    }
+}
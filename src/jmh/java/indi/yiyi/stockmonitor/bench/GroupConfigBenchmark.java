@@ -0,0 +1,121 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.data.Stock;
+import indi.yiyi.stockmonitor.utils.GroupConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * “修改分组”对话框的开销
+ * <p>
+ * 打开对话框时查找一只股票所在的分组：scan 为原来的做法，遍历每个分组的每只股票；index 查反向索引。
+ * 确定时在奇数、偶数分组之间切换一只股票的所属分组：perCall 为原来的做法，先逐个分组删除再逐个加入，
+ * 每次调用都写日志、发布快照；edit 在一个事务中完成。
+ * {@link GroupConfig} 的数据目录在用户目录下，这里在加载它之前把 user.home 指向临时目录，结束后删除。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GroupConfigBenchmark {
+
+    @Param({"40"})
+    public int groups;
+
+    @Param({"500"})
+    public int stocksPerGroup;
+
+    private Path home;
+    private List<GroupConfig.Group> snapshot;
+    private int next;
+    private final List<List<String>> selections = List.of(new ArrayList<>(), new ArrayList<>());
+    private int flip;
+
+    @Setup
+    public void setup() throws IOException {
+        home = Files.createTempDirectory("groups-bench");
+        System.setProperty("user.home", home.toString());
+        for (int g = 0; g < groups; g++) {
+            GroupConfig.addGroup("分组" + g);
+            for (int i = 0; i < stocksPerGroup; i++) {
+                // 相邻分组有一半股票重叠
+                GroupConfig.addStock("分组" + g, "1", String.format("%06d", g * stocksPerGroup / 2 + i));
+            }
+        }
+        snapshot = GroupConfig.getGroups();
+        for (int g = 0; g < groups; g++) {
+            selections.get(g & 1).add("分组" + g);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        GroupConfig.flush();
+        try (Stream<Path> files = Files.walk(home)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private String nextCode() {
+        next = (next + 7919) % (groups * stocksPerGroup / 2);
+        return String.format("%06d", next);
+    }
+
+    @Benchmark
+    public Set<String> scan() {
+        String code = nextCode();
+        Set<String> result = new HashSet<>();
+        for (GroupConfig.Group g : snapshot) {
+            for (Stock s : g.getStocks()) {
+                if (s.marketCode().equals("1") && s.stockCode().equals(code)) {
+                    result.add(g.getName());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Set<String> index() {
+        return GroupConfig.getGroupsOf("1", nextCode());
+    }
+
+    @Benchmark
+    public void perCall() {
+        List<String> selected = selections.get(flip++ & 1);
+        for (String g : GroupConfig.getGroupNames()) {
+            GroupConfig.removeStock(g, "0", "000001");
+        }
+        for (String g : selected) {
+            GroupConfig.addStock(g, "0", "000001");
+        }
+    }
+
+    @Benchmark
+    public boolean edit() {
+        List<String> selected = selections.get(flip++ & 1);
+        return GroupConfig.edit(tx -> tx.setGroupsOf("0", "000001", selected));
+    }
+}
@@ -0,0 +1,107 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.indicator.Indicator;
+import indi.yiyi.stockmonitor.indicator.IndicatorEngine;
+import indi.yiyi.stockmonitor.indicator.IndicatorSpec;
+import indi.yiyi.stockmonitor.quote.TrendsParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指标更新：symbols 只股票各启用全部指标列，每个周期每只股票的最后一根分钟线都有变化
+ * <p>
+ * stream 为 {@link IndicatorEngine} 的增量更新；recompute 为每个周期从第一根分钟线重新计算全部指标，作为对照。
+ * 分钟线取自 fixtures/trends2-{bars}.json。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndicatorEngineBenchmark {
+
+    @Param({"3000"})
+    public int symbols;
+
+    @Param({"121", "241"})
+    public int bars;
+
+    private final Map<String, IntradaySeries> seriesByKey = new HashMap<>();
+    private final List<Quote> quotes = new ArrayList<>();
+    private IndicatorEngine engine;
+    private int tick;
+
+    @Setup
+    public void setup() throws IOException {
+        IntradaySeries template = TrendsParser.parseSeries(
+                new ByteArrayInputStream(Fixtures.bytes("trends2-" + bars + ".json")), "1_600519").orElseThrow().series();
+        engine = new IndicatorEngine(key -> Optional.ofNullable(seriesByKey.get(key)));
+        for (int i = 0; i < symbols; i++) {
+            String code = String.format("%06d", i);
+            IntradaySeries s = new IntradaySeries("1_" + code, template.getTradeDate());
+            for (int b = 0; b < template.size(); b++) {
+                s.append(template.minuteAt(b), template.openAt(b), template.closeAt(b), template.highAt(b),
+                        template.lowAt(b), template.volumeAt(b), template.amountAt(b));
+            }
+            seriesByKey.put(s.getKey(), s);
+            quotes.add(new Quote("1", code, "股票" + i, 0, 0, 0, 0, 0));
+            for (IndicatorSpec spec : IndicatorSpec.COLUMNS) {
+                engine.acquire(s.getKey(), spec);
+            }
+        }
+    }
+
+    /**
+     * 模拟一次快照并入：最后一根分钟线的收盘价变化
+     */
+    private void mergeTick() {
+        tick++;
+        for (IntradaySeries s : seriesByKey.values()) {
+            s.merge(s.lastMinute(), s.lastClose() + ((tick & 1) == 0 ? 0.01 : -0.01), 0, 0);
+        }
+    }
+
+    @Benchmark
+    public double stream() {
+        mergeTick();
+        engine.update(quotes);
+        return engine.value(quotes.get(0).key(), IndicatorSpec.RSI_14);
+    }
+
+    @Benchmark
+    public double recompute() {
+        mergeTick();
+        double sum = 0;
+        for (IntradaySeries s : seriesByKey.values()) {
+            int last = s.size() - 1;
+            for (IndicatorSpec spec : IndicatorSpec.COLUMNS) {
+                Indicator ind = spec.create();
+                for (int i = 0; i < last; i++) {
+                    ind.onBar(s.openAt(i), s.highAt(i), s.lowAt(i), s.closeAt(i), s.volumeAt(i), s.amountAt(i));
+                }
+                sum += ind.value(s.openAt(last), s.highAt(last), s.lowAt(last), s.closeAt(last),
+                        s.volumeAt(last), s.amountAt(last));
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,101 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.history.MinuteBarStore;
+import indi.yiyi.stockmonitor.quote.TrendsParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 分钟线历史的读取：symbols 只股票 × days 个交易日的区间查询，对应图表一次加载的数据量
+ * <p>
+ * 每只股票每天的分钟线取自 fixtures/trends2-241.json，写入临时目录，结束后删除。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MinuteBarStoreBenchmark {
+
+    @Param({"1", "30"})
+    public int symbols;
+
+    @Param({"20"})
+    public int days;
+
+    private Path dir;
+    private MinuteBarStore store;
+    private final List<String> keys = new ArrayList<>();
+    private LocalDate first;
+    private LocalDate last;
+
+    @Setup
+    public void setup() throws IOException {
+        IntradaySeries template = TrendsParser.parseSeries(
+                new ByteArrayInputStream(Fixtures.bytes("trends2-241.json")), "1_600519").orElseThrow().series();
+        dir = Files.createTempDirectory("history-bench");
+        store = new MinuteBarStore(dir, 400);
+        last = template.getTradeDate();
+        first = last.minusDays(days - 1);
+        for (int i = 0; i < symbols; i++) {
+            keys.add(String.format("1_%06d", 600000 + i));
+        }
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            List<IntradaySeries> list = new ArrayList<>();
+            for (String key : keys) {
+                IntradaySeries s = new IntradaySeries(key, day);
+                for (int i = 0; i < template.size(); i++) {
+                    s.append(template.minuteAt(i), template.openAt(i), template.closeAt(i), template.highAt(i),
+                            template.lowAt(i), template.volumeAt(i), template.amountAt(i));
+                }
+                list.add(s);
+            }
+            store.save(list);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int range() {
+        int bars = 0;
+        for (Map.Entry<String, List<IntradaySeries>> e : store.range(keys, first, last).entrySet()) {
+            for (IntradaySeries s : e.getValue()) {
+                bars += s.size();
+            }
+        }
+        return bars;
+    }
+
+    @Benchmark
+    public int readOne() {
+        return store.read(keys.get(0), last).map(IntradaySeries::size).orElse(0);
+    }
+}
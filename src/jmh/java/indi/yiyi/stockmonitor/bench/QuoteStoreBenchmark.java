@@ -0,0 +1,155 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行情存储：每行一组 JavaFX 属性的模型与按列存储的 {@link QuoteStore} 对比
+ * <p>
+ * build* 建立整个股票池，gc.alloc.rate.norm 除以 symbols 即每只股票的堆增长；
+ * tick* 模拟一个刷新周期写入全部股票，对应每个周期的 GC 压力。
+ * 属性模型按改造前的做法为每只股票创建一行再把数值复制到已有行。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuoteStoreBenchmark {
+
+    @Param({"3000"})
+    public int symbols;
+
+    private String[] markets;
+    private String[] codes;
+    private String[] names;
+    private double[] prices;
+    private double[] preCloses;
+    private int tick;
+
+    private Map<String, PropertyRow> rows;
+    private QuoteStore store;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        markets = new String[symbols];
+        codes = new String[symbols];
+        names = new String[symbols];
+        prices = new double[symbols];
+        preCloses = new double[symbols];
+        for (int i = 0; i < symbols; i++) {
+            markets[i] = (i & 1) == 0 ? "0" : "1";
+            codes[i] = String.format(Locale.ROOT, "%06d", i);
+            names[i] = "股票" + i;
+            preCloses[i] = 5 + (i % 200) * 0.37;
+            prices[i] = preCloses[i];
+        }
+        rows = buildRows();
+        store = buildStore();
+    }
+
+    @Benchmark
+    public Map<String, PropertyRow> buildRows() {
+        Map<String, PropertyRow> m = new HashMap<>(symbols * 2);
+        for (int i = 0; i < symbols; i++) {
+            m.put(markets[i] + "_" + codes[i], newRow(i));
+        }
+        return m;
+    }
+
+    @Benchmark
+    public QuoteStore buildStore() {
+        QuoteStore s = new QuoteStore();
+        for (int i = 0; i < symbols; i++) {
+            s.accept(markets[i], codes[i], names[i], prices[i], preCloses[i], 0, 0, 0);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public int tickRows() {
+        move();
+        for (int i = 0; i < symbols; i++) {
+            PropertyRow row = newRow(i);
+            PropertyRow existed = rows.get(markets[i] + "_" + codes[i]);
+            existed.name.set(row.name.get());
+            existed.price.set(row.price.get());
+            existed.changeRate.set(row.changeRate.get());
+            existed.changeRateStr.set(row.changeRateStr.get());
+            existed.changeAmt.set(row.changeAmt.get());
+        }
+        return rows.size();
+    }
+
+    @Benchmark
+    public int tickStore() {
+        move();
+        for (int i = 0; i < symbols; i++) {
+            store.accept(markets[i], codes[i], names[i], prices[i], preCloses[i], tick, 0, 0);
+        }
+        return store.drainChanged().size();
+    }
+
+    /**
+     * 每个周期约十分之一的股票价格变动
+     */
+    private void move() {
+        tick++;
+        for (int i = tick % 10; i < symbols; i += 10) {
+            prices[i] += (tick & 1) == 0 ? 0.01 : -0.01;
+        }
+    }
+
+    private PropertyRow newRow(int i) {
+        Quote q = new Quote(markets[i], codes[i], names[i], prices[i], preCloses[i], 0, 0, 0);
+        return new PropertyRow(q);
+    }
+
+    /**
+     * 改造前 StockRow 的结构：每只股票九个字段、七个 JavaFX 属性
+     */
+    public static class PropertyRow {
+        final String marketCode;
+        final String rawCode;
+        final IntegerProperty index = new SimpleIntegerProperty(0);
+        final StringProperty code = new SimpleStringProperty("");
+        final StringProperty name = new SimpleStringProperty("");
+        final DoubleProperty price = new SimpleDoubleProperty(0);
+        final DoubleProperty changeRate = new SimpleDoubleProperty(0);
+        final StringProperty changeRateStr = new SimpleStringProperty("");
+        final DoubleProperty changeAmt = new SimpleDoubleProperty(0);
+
+        PropertyRow(Quote q) {
+            marketCode = q.marketCode();
+            rawCode = q.stockCode();
+            code.set(q.displayCode());
+            name.set(q.name());
+            price.set(q.price());
+            changeRate.set(q.changeRate());
+            changeRateStr.set(String.format(Locale.CHINA, "%.2f%%", q.changeRate() * 100));
+            changeAmt.set(q.changeAmt());
+        }
+    }
+}
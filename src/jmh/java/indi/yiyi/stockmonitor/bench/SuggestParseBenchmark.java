@@ -0,0 +1,49 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.data.StockerSuggestion;
+import indi.yiyi.stockmonitor.utils.StockerSuggestHttpUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 股票联想接口响应解析：新浪（正则 + split）与腾讯（split + unescapeJava）
+ * <p>
+ * 响应体来自 fixtures/suggest-sina.txt、fixtures/suggest-tencent.txt，各含十条结果，
+ * 对应搜索框每次输入触发的一次解析。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SuggestParseBenchmark {
+
+    private String sina;
+    private String tencent;
+
+    @Setup
+    public void setup() {
+        sina = Fixtures.text("suggest-sina.txt");
+        tencent = Fixtures.text("suggest-tencent.txt");
+    }
+
+    @Benchmark
+    public List<StockerSuggestion> sina() {
+        return StockerSuggestHttpUtil.INSTANCE.parseSinaSuggestion(sina);
+    }
+
+    @Benchmark
+    public List<StockerSuggestion> tencent() {
+        return StockerSuggestHttpUtil.INSTANCE.parseTencentSuggestion(tencent);
+    }
+}
@@ -0,0 +1,109 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.data.StockRow;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import indi.yiyi.stockmonitor.quote.UlistParser;
+import javafx.beans.value.ObservableValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个刷新周期作用到 N 行 {@link StockRow}：解析批量响应写入 {@link QuoteStore}、取出变化、刷新对应行、
+ * 读取可见单元格
+ * <p>
+ * 响应体来自 fixtures/ulist-{rows}-a.json 与 -b.json，两者约十分之一的股票价格不同，交替喂入即每个周期
+ * 约十分之一的行有变化。parse 只包含解析与写入存储，apply 与其之差即为行刷新的开销。
+ * 可见行数固定为 {@link #VISIBLE}，对应窗口内实际显示的单元格。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickApplyBenchmark {
+
+    private static final int VISIBLE = 30;
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private byte[][] payloads;
+    private int tick;
+
+    private QuoteStore store;
+    private StockRow[] rowBySlot;
+    private final List<ObservableValue<?>> visibleCells = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        payloads = new byte[][]{
+                Fixtures.bytes("ulist-" + rows + "-a.json"),
+                Fixtures.bytes("ulist-" + rows + "-b.json")
+        };
+        store = new QuoteStore();
+        feed(payloads[0]);
+        List<Quote> initial = store.drainChanged();
+
+        rowBySlot = new StockRow[store.size()];
+        for (int i = 0; i < initial.size(); i++) {
+            Quote q = initial.get(i);
+            int slot = store.slotOf(q.key());
+            StockRow row = new StockRow(i + 1, q.marketCode(), q.stockCode(), q.displayCode(), store, slot);
+            rowBySlot[slot] = row;
+            if (i < VISIBLE) {
+                visibleCells.add(row.nameValue());
+                visibleCells.add(row.priceValue());
+                visibleCells.add(row.changeRateValue());
+                visibleCells.add(row.changeAmtValue());
+            }
+        }
+        readVisible();
+    }
+
+    @Benchmark
+    public int parse() throws IOException {
+        int n = feed(payloads[++tick & 1]);
+        store.drainChanged();
+        return n;
+    }
+
+    @Benchmark
+    public int apply() throws IOException {
+        feed(payloads[++tick & 1]);
+        List<Quote> changed = store.drainChanged();
+        for (Quote q : changed) {
+            int slot = store.slotOf(q.key());
+            rowBySlot[slot].refresh(store.changedFields(slot));
+        }
+        return changed.size() + readVisible();
+    }
+
+    private int feed(byte[] payload) throws IOException {
+        UlistParser parser = new UlistParser(store);
+        parser.feed(ByteBuffer.wrap(payload));
+        return parser.finish();
+    }
+
+    private int readVisible() {
+        int h = 0;
+        for (ObservableValue<?> cell : visibleCells) {
+            h += cell.getValue().hashCode();
+        }
+        return h;
+    }
+}
@@ -0,0 +1,74 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.history.TickJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 行情记录的写入开销：一个刷新周期把全部股票写入 {@link TickJournal}
+ * <p>
+ * 每个周期所有股票的成交量都有变化，即每只股票都写一条记录，对应抓取线程上增加的耗时。
+ * 文件写在临时目录，结束后删除。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickJournalBenchmark {
+
+    @Param({"3000"})
+    public int symbols;
+
+    private Path dir;
+    private TickJournal journal;
+    private String[] markets;
+    private String[] codes;
+    private long tick;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("journal-bench");
+        journal = TickJournal.open(dir);
+        markets = new String[symbols];
+        codes = new String[symbols];
+        for (int i = 0; i < symbols; i++) {
+            markets[i] = (i & 1) == 0 ? "1" : "0";
+            codes[i] = String.format("%06d", i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long appendTick() {
+        tick++;
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < symbols; i++) {
+            journal.append(markets[i], codes[i], 10_000 + (i + tick) % 50, tick * 100 + i, now / 1000, now);
+        }
+        return journal.size();
+    }
+}
@@ -0,0 +1,73 @@
+package indi.yiyi.stockmonitor.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.quote.TrendsParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * trends2 解析：原先的 readTree + split 与流式解析对比
+ * <p>
+ * 响应体来自 fixtures/trends2-{bars}.json。配合 -prof gc 查看每次解析的分配量（gc.alloc.rate.norm）；
+ * parseLast 对应校验单只股票，parseSeries 对应加载当日完整分时。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrendsParseBenchmark {
+
+    /**
+     * 分钟线条数：开盘、上午收盘、全天
+     */
+    @Param({"1", "121", "241"})
+    public int bars;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        payload = Fixtures.bytes("trends2-" + bars + ".json");
+    }
+
+    @Benchmark
+    public double tree() throws IOException {
+        JsonNode dataNode = mapper.readTree(new String(payload, StandardCharsets.UTF_8)).path("data");
+        double preClose = dataNode.path("preClose").asDouble();
+        JsonNode trends = dataNode.path("trends");
+        String last = trends.get(trends.size() - 1).asText();
+        String[] arr = last.split(",");
+        return Double.parseDouble(arr[2]) - preClose;
+    }
+
+    @Benchmark
+    public double streaming() throws IOException {
+        Optional<Quote> q = TrendsParser.parseLast(new ByteArrayInputStream(payload), "1", "600519");
+        return q.map(Quote::changeAmt).orElse(0.0);
+    }
+
+    @Benchmark
+    public int series() throws IOException {
+        return TrendsParser.parseSeries(new ByteArrayInputStream(payload), "1_600519")
+                .map(t -> t.series().size())
+                .orElse(0);
+    }
+}
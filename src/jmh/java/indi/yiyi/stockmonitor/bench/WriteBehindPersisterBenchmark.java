@@ -0,0 +1,87 @@
+package indi.yiyi.stockmonitor.bench;
+
+import indi.yiyi.stockmonitor.utils.WriteBehindPersister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 一次分组修改在调用线程（通常是 FX 线程）上的耗时
+ * <p>
+ * rewrite 为每次修改都在调用线程上安全地写出整个 groups.json（临时文件、fsync、原子重命名，groups × stocksPerGroup 只股票）；
+ * append 只追加一行修改记录，完整快照由后台线程合并保存。文件写在临时目录，结束后删除。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WriteBehindPersisterBenchmark {
+
+    @Param({"40"})
+    public int groups;
+
+    @Param({"500"})
+    public int stocksPerGroup;
+
+    private Path dir;
+    private byte[] snapshot;
+    private byte[] record;
+    private WriteBehindPersister persister;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("config-bench");
+        StringBuilder sb = new StringBuilder("{\"groups\":[");
+        for (int g = 0; g < groups; g++) {
+            if (g > 0) sb.append(',');
+            sb.append("{\"name\":\"分组").append(g).append("\",\"stocks\":[");
+            for (int i = 0; i < stocksPerGroup; i++) {
+                if (i > 0) sb.append(',');
+                sb.append("{\"marketCode\":\"").append(i & 1).append("\",\"stockCode\":\"")
+                        .append(String.format("%06d", i)).append("\"}");
+            }
+            sb.append("]}");
+        }
+        snapshot = sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        record = "{\"op\":\"ADD_STOCK\",\"group\":\"分组1\",\"marketCode\":\"0\",\"stockCode\":\"000001\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        persister = new WriteBehindPersister(dir.resolve("groups.json"), this, () -> snapshot, 500);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        persister.flush();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void rewrite() throws IOException {
+        WriteBehindPersister.writeAtomically(dir.resolve("rewrite.json"), snapshot);
+    }
+
+    @Benchmark
+    public void append() {
+        synchronized (this) {
+            persister.append(record);
+        }
+    }
+}
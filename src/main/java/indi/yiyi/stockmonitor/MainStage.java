@@ -1,22 +1,35 @@
 package indi.yiyi.stockmonitor;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import github.nonoas.jfx.flat.ui.concurrent.TaskHandler;
 import github.nonoas.jfx.flat.ui.control.UIFactory;
 import github.nonoas.jfx.flat.ui.stage.AppStage;
 import github.nonoas.jfx.flat.ui.stage.ToastQueue;
+import indi.yiyi.stockmonitor.alert.AlertEngine;
+import indi.yiyi.stockmonitor.data.Quote;
 import indi.yiyi.stockmonitor.data.Stock;
 import indi.yiyi.stockmonitor.data.StockGroup;
-import indi.yiyi.stockmonitor.data.StockRow;
+import indi.yiyi.stockmonitor.history.HistoryRecorder;
+import indi.yiyi.stockmonitor.history.MinuteBarStore;
+import indi.yiyi.stockmonitor.history.TickJournal;
+import indi.yiyi.stockmonitor.indicator.IndicatorEngine;
+import indi.yiyi.stockmonitor.metrics.QuoteMetrics;
+import indi.yiyi.stockmonitor.quote.EastMoneyQuoteSource;
+import indi.yiyi.stockmonitor.quote.FetchEngine;
+import indi.yiyi.stockmonitor.quote.IntradaySeriesCache;
+import indi.yiyi.stockmonitor.quote.QuoteSink;
+import indi.yiyi.stockmonitor.quote.QuoteSource;
+import indi.yiyi.stockmonitor.quote.QuoteSources;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import indi.yiyi.stockmonitor.quote.QuoteSubscriptions;
+import indi.yiyi.stockmonitor.quote.RefreshScheduler;
+import indi.yiyi.stockmonitor.quote.TickCoordinator;
+import indi.yiyi.stockmonitor.quote.TradingCalendar;
+import indi.yiyi.stockmonitor.utils.AlertConfig;
 import indi.yiyi.stockmonitor.utils.AppConfig;
 import indi.yiyi.stockmonitor.utils.FileUtil;
 import indi.yiyi.stockmonitor.utils.GroupConfig;
 import indi.yiyi.stockmonitor.utils.UIUtil;
 import indi.yiyi.stockmonitor.view.*;
 import javafx.application.Platform;
-import javafx.beans.value.ChangeListener;
-import javafx.beans.value.ObservableValue;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
@@ -43,20 +56,15 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.net.URI;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author Nonoas
@@ -66,19 +74,54 @@ import java.util.concurrent.TimeUnit;
 public class MainStage extends BaseStage {
     private static final Logger LOG = LogManager.getLogger(MainStage.class);
     private final TabPane tabPane = new TabPane();
-    private final ScheduledExecutorService scheduler;
+    private final RefreshScheduler scheduler;
     private final Map<String, StockGroup> groups = new ConcurrentHashMap<>();
 
-    private final Map<String, String> marketDict = Map.of(
-            "0", "SZ",
-            "1", "SH"
-    );
+    private final HttpClient http = QuoteSources.newHttpClient();
 
-    private final HttpClient http = HttpClient.newBuilder()
-            .connectTimeout(java.time.Duration.ofSeconds(8))
-            .build();
+    /**
+     * 分时数据固定使用东方财富，批量快照使用配置的数据源
+     */
+    private final EastMoneyQuoteSource eastMoney = new EastMoneyQuoteSource(http);
+    private final QuoteSource quoteSource = QuoteSources.create(http);
+    private final IntradaySeriesCache seriesCache = new IntradaySeriesCache(eastMoney);
+    private final FetchEngine fetchEngine = new FetchEngine();
+    private final QuoteStore quoteStore = new QuoteStore();
+    private final QuoteSubscriptions subscriptions = new QuoteSubscriptions(quoteStore::latest);
+    private final FxUpdateQueue fxUpdates = new FxUpdateQueue();
+    private final TickCoordinator ticks = new TickCoordinator(this::fetchAndUpdate, fetchEngine.scheduler());
+    /**
+     * 行情记录，配置项 journal.enabled=true 时开启，否则为 null
+     */
+    private final TickJournal journal = openJournal();
+    private final AlertEngine alerts = new AlertEngine(seriesCache::get, subscriptions);
+    private final IndicatorEngine indicators = new IndicatorEngine(seriesCache::get);
+    /**
+     * 分钟线历史，定期保存当日分时序列
+     */
+    private final HistoryRecorder history = new HistoryRecorder(
+            new MinuteBarStore(GroupConfig.DATA_DIR.resolve("history"), AppConfig.getInt("history.retentionDays", 400)),
+            seriesCache::values, GroupConfig.DATA_DIR.resolve("journal"), AppConfig.getInt("journal.retentionDays", 7));
+
+    /**
+     * 每个刷新周期最多全量加载的分时序列数
+     */
+    private static final int SERIES_LOADS_PER_TICK = 8;
+
+    private static final int MAX_ALERT_TOASTS = 3;
+
+    /**
+     * 以下只在刷新周期内访问：已同步到订阅的分组配置版本，以及拉取批次和生成它时的订阅版本
+     */
+    private long syncedGroupsVersion = -1;
+    private List<List<Stock>> fetchPlan = List.of();
+    private long fetchPlanVersion = -1;
+
+    /**
+     * 单个刷新周期的截止时间，超时的请求被丢弃
+     */
+    private final Duration tickDeadline = Duration.ofMillis(AppConfig.getInt("fetch.tickDeadlineMs", 2500));
 
-    private final ObjectMapper mapper = new ObjectMapper();
     private final Stage stage = getStage();
 
     public MainStage() {
@@ -93,15 +136,6 @@ public class MainStage extends BaseStage {
         registryDragger(menuBar);
 
         tabPane.setSide(Side.BOTTOM);
-        tabPane.getSelectionModel().selectedItemProperty().addListener(new ChangeListener<>() {
-            @Override
-            public void changed(ObservableValue<? extends Tab> observable, Tab oldValue, Tab newValue) {
-                if (newValue != null && scheduler != null) {
-                    TaskHandler.backRun(() -> fetchAndUpdate());
-                }
-            }
-        });
-
         /* 股票下跌色 (默认绿色) */
         String mergedStyle = String.format(
                 "-stock-up-color: %s; -stock-down-color: %s;",
@@ -112,6 +146,10 @@ public class MainStage extends BaseStage {
 
         // 加载分组中的股票
         initGroups();
+        // 修改分组（可能来自任意线程）提交后一起更新各分组表格
+        GroupConfig.addListener(() -> Platform.runLater(this::syncGroupTables));
+        // 切换分组时立即刷新一次，与进行中的周期合并
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, o, n) -> ticks.requestNow());
 
         BorderPane root = new BorderPane(tabPane);
         root.setTop(menuBar);
@@ -124,17 +162,24 @@ public class MainStage extends BaseStage {
         // 添加到 systemButtons 的开头
         getSystemButtons().addAll(0, List.of(pinButton));
 
-        // 启动定时抓取
-        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "fetch-thread");
-            t.setDaemon(true);
-            return t;
-        });
-        scheduler.scheduleAtFixedRate(this::fetchAndUpdate, 0, 3, TimeUnit.SECONDS);
+        // 按交易时段定时抓取
+        scheduler = new RefreshScheduler(TradingCalendar.load(), ticks::tick);
+        scheduler.start();
+        history.start(AppConfig.getInt("history.saveIntervalMinutes", 5));
+
+        // 价格提醒：规则修改后重建索引与订阅，有规则的股票不在任何分组中也会被拉取
+        alerts.reload(AlertConfig.getRules());
+        AlertConfig.addListener(() -> alerts.reload(AlertConfig.getRules()));
+
+        // 行情链路指标：诊断窗口与 JMX 读取
+        registerMetrics();
 
         // 关闭时停止后台任务
         stage.setOnCloseRequest(ev -> {
-            scheduler.shutdownNow();
+            scheduler.shutdown();
+            fetchEngine.shutdown();
+            if (journal != null) journal.close();
+            history.shutdown();
             Platform.exit();
         });
     }
@@ -170,6 +215,9 @@ public class MainStage extends BaseStage {
             });
         });
 
+        MenuItem refreshItem = new MenuItem("立即刷新");
+        refreshItem.setOnAction(e -> ticks.requestNow());
+
         MenuItem colorSetting = new MenuItem("颜色设置");
         colorSetting.setOnAction(
                 e -> {
@@ -208,12 +256,19 @@ public class MainStage extends BaseStage {
                     throw new RuntimeException(e);
                 }
             }
-            AIStage aiStage = new AIStage(kimiApiKey, getStocksOfCurrentGroup());
+            AIStage aiStage = new AIStage(kimiApiKey, subscriptions, getStocksOfCurrentGroup());
             aiStage.getStage().initOwner(stage);
             aiStage.show();
         });
 
-        Menu menu = new Menu("菜单", null, addItem, addGroupItem, colorSetting);
+        MenuItem diagnosticsItem = new MenuItem("诊断信息");
+        diagnosticsItem.setOnAction(e -> {
+            DiagnosticsStage diagnostics = new DiagnosticsStage(QuoteMetrics.get());
+            diagnostics.getStage().initOwner(stage);
+            diagnostics.show();
+        });
+
+        Menu menu = new Menu("菜单", null, addItem, addGroupItem, refreshItem, colorSetting, diagnosticsItem);
         Menu menuAi = new Menu("点我看看", null, miAi);
 
 
@@ -223,13 +278,15 @@ public class MainStage extends BaseStage {
     }
 
     private void initGroups() {
-        for (GroupConfig.Group g : GroupConfig.getGroups()) {
-            addGroupTab(g.getName());
+        for (String groupName : GroupConfig.getGroupNames()) {
+            addGroupTab(groupName);
         }
     }
 
     private void addGroupTab(String groupName) {
-        StockGroup group = new StockGroup(groupName);
+        StockGroup group = new StockGroup(groupName, quoteStore, seriesCache::get, indicators);
+        group.setSubscription(subscriptions.subscribe(GroupConfig.getStocksOf(groupName),
+                quotes -> fxUpdates.post(group.getTableView().diff(quotes))));
         groups.put(groupName, group);
 
         Tab tab = new StockTab(group);
@@ -249,6 +306,7 @@ public class MainStage extends BaseStage {
                             // 删除 UI
                             tabPane.getTabs().remove(tab);
                             groups.remove(groupName);
+                            group.getSubscription().close();
                         }
                     });
         });
@@ -260,49 +318,155 @@ public class MainStage extends BaseStage {
         tabPane.getSelectionModel().select(tab);
     }
 
-    private void fetchAndUpdate() {
+    /**
+     * 拉取当前有订阅者的股票，每只股票每个周期只请求一次，结果由 {@link QuoteSubscriptions} 分发给全部订阅者。
+     * 每个分组表格订阅自己的股票，因此未选中的分组也保持最新。
+     * 由 {@link TickCoordinator} 在抓取引擎的线程上调用，同一时间只有一个周期在执行，返回的 future 完成即周期结束
+     *
+     * @param seq 周期序号，截止时间后迟到的旧结果据此丢弃
+     */
+    private CompletableFuture<?> fetchAndUpdate(long seq) {
         try {
-            Tab selected = tabPane.getSelectionModel().getSelectedItem();
-            if (selected == null) return;
+            syncGroupSubscriptions();
+            List<List<Stock>> plan = fetchPlan();
+            if (plan.isEmpty()) return null;
+
+            // 各批请求异步发出，解析结果直接写入 quoteStore，全部返回或到达截止时间后进入界面更新，不阻塞抓取线程
+            QuoteSink sink = journal == null ? ticks.sink(seq, quoteStore) : ticks.sink(seq, quoteStore).andThen(journal);
+            List<CompletableFuture<Integer>> parts = plan.stream()
+                    .map(part -> fetchEngine.submitAsync(quoteSource.host(), () -> quoteSource.fetchAsync(part, sink)))
+                    .toList();
+            return fetchEngine.allAsync(quoteSource.host(), parts, tickDeadline)
+                    .thenAcceptAsync(batch -> {
+                        QuoteMetrics.get().endpoint(quoteSource.name()).shed(batch.shed());
+                        QuoteMetrics.get().tick();
+                        // 只为本周期有变化的股票创建 Quote
+                        List<Quote> quotes = quoteStore.drainChanged();
+                        seriesCache.merge(quotes);
+                        indicators.update(quotes);
+                        subscriptions.publish(quotes);
+                        fxUpdates.post(toasts(alerts.evaluate(quotes, System.currentTimeMillis())));
+                        // 各表格只提交有变化的行，整个周期合并为一次 runLater，无变化时不提交
+                        fxUpdates.flush();
+                        seriesCache.loadPending(fetchEngine, SERIES_LOADS_PER_TICK, tickDeadline);
+                    }, fetchEngine.scheduler())
+                    .exceptionally(e -> {
+                        LOG.error("fetch error: {}", e.getMessage());
+                        return null;
+                    });
+        } catch (Exception e) {
+            LOG.error("fetch error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 修改分组等操作只更新了 {@link GroupConfig}，这里让各分组表格的订阅与配置保持一致；
+     * 配置版本未变时只有一次 volatile 读
+     */
+    private void syncGroupSubscriptions() {
+        GroupConfig.Snapshot snapshot = GroupConfig.snapshot();
+        if (snapshot.version() == syncedGroupsVersion) return;
+        for (StockGroup group : groups.values()) {
+            group.getSubscription().retain(snapshot.stocksOf(group.getName()));
+        }
+        syncedGroupsVersion = snapshot.version();
+    }
 
-            String groupName = selected.getText();
-            StockGroup group = groups.get(groupName);
-            if (group == null) return;
+    /**
+     * 分组配置的一次修改提交后一起更新全部分组：订阅立即与配置一致，表格移除已不在分组中的股票，
+     * 已有行情的新股票（如从其他分组移入）立即显示，其余在下一个刷新周期随行情出现；需在 FX 线程调用
+     */
+    private void syncGroupTables() {
+        GroupConfig.Snapshot snapshot = GroupConfig.snapshot();
+        for (StockGroup group : groups.values()) {
+            List<Stock> stocks = snapshot.stocksOf(group.getName());
+            StockTableView table = group.getTableView();
+            group.getSubscription().retain(stocks);
+            table.retainRows(stocks);
+            for (Quote q : group.getSubscription().latest()) {
+                if (!table.containsStockKey(q.key())) table.show(q);
+            }
+        }
+    }
 
-            List<Stock> stocks = GroupConfig.getStocksOf(groupName);
-            List<CompletableFuture<Optional<StockRow>>> futures = stocks.stream()
-                    .map(s -> CompletableFuture.supplyAsync(() -> getSocketData(s.marketCode(), s.stockCode())))
-                    .toList();
+    /**
+     * 按数据源切分好的本周期拉取批次，订阅的股票不变时沿用上一周期的结果
+     */
+    private List<List<Stock>> fetchPlan() {
+        long version = subscriptions.getVersion();
+        if (version != fetchPlanVersion) {
+            // 先读版本再取股票，两者之间的变化会在下一周期再次重建
+            fetchPlan = quoteSource.partition(subscriptions.activeStocks());
+            fetchPlanVersion = version;
+        }
+        return fetchPlan;
+    }
 
-            List<Optional<StockRow>> results = futures.stream()
-                    .map(CompletableFuture::join)
-                    .toList();
+    /**
+     * 一个周期触发的提醒，最多逐条弹出 {@value #MAX_ALERT_TOASTS} 条，其余合并为一条
+     *
+     * @return 需要在 FX 线程执行的提示，没有提醒时返回 null
+     */
+    private Runnable toasts(List<AlertEngine.Fired> fired) {
+        if (fired.isEmpty()) return null;
+        List<String> messages = new ArrayList<>(MAX_ALERT_TOASTS + 1);
+        for (AlertEngine.Fired f : fired) {
+            LOG.info("alert: {}", f.message());
+            if (messages.size() < MAX_ALERT_TOASTS) messages.add(f.message());
+        }
+        if (fired.size() > MAX_ALERT_TOASTS) {
+            messages.add("另有 " + (fired.size() - MAX_ALERT_TOASTS) + " 条价格提醒");
+        }
+        return () -> messages.forEach(m -> ToastQueue.show(stage, m, 4000));
+    }
 
-            Platform.runLater(() -> {
-                StockTableView table = group.getTableView();
-                for (Optional<StockRow> opt : results) {
-                    if (opt.isEmpty()) continue;
-                    StockRow row = opt.get();
-                    String key = row.getMarketCode() + "_" + row.getRawCode();
-                    if (!table.getRowByKey().containsKey(key)) {
-                        table.getRowByKey().put(key, row);
-                        row.setIndex(table.getItems().size() + 1);
-                        table.getItems().add(row);
-                    } else {
-                        StockRow existed = table.getRowByKey().get(key);
-                        existed.setName(row.getName());
-                        existed.setPrice(row.getPrice());
-                        existed.setChangeRate(row.getChangeRate());
-                        existed.setChangeRateStr(row.getChangeRateStr());
-                        existed.setChangeAmt(row.getChangeAmt());
-                    }
-                }
-            });
-        } catch (Exception e) {
-            LOG.error("fetch error: {}", e.getMessage());
+    private static TickJournal openJournal() {
+        if (!Boolean.parseBoolean(AppConfig.get("journal.enabled", "false"))) return null;
+        try {
+            return TickJournal.open(GroupConfig.DATA_DIR.resolve("journal"));
+        } catch (IOException e) {
+            LOG.warn("open journal error: {}", e.getMessage());
+            return null;
         }
     }
 
+    private void registerMetrics() {
+        QuoteMetrics metrics = QuoteMetrics.get();
+        metrics.gauge("tick.sequence", ticks::getSequence);
+        metrics.gauge("tick.merged", ticks::getMerged);
+        metrics.gauge("tick.dropped", ticks::getDropped);
+        metrics.gauge("tick.overrun", ticks::getOverrun);
+        metrics.gauge("fetch.shedTotal", fetchEngine::getShedTotal);
+        metrics.gauge("store.symbols", quoteStore::size);
+        if (journal != null) metrics.gauge("journal.records", journal::size);
+        metrics.gauge("alerts.rules", alerts::size);
+        metrics.gauge("indicators.active", indicators::size);
+        metrics.gauge("subscriptions.stocks", () -> subscriptions.activeStocks().size());
+        metrics.registerMBean();
+    }
+
+    /**
+     * 刷新周期协调器，提供合并、丢弃、超时跳过的计数
+     */
+    public TickCoordinator getTickCoordinator() {
+        return ticks;
+    }
+
+    /**
+     * 当日分时序列缓存，供图表等组件读取
+     */
+    public IntradaySeriesCache getSeriesCache() {
+        return seriesCache;
+    }
+
+    /**
+     * 本地分钟线历史，供图表、指标读取以前交易日的数据
+     */
+    public MinuteBarStore getHistory() {
+        return history.getStore();
+    }
+
     private List<Stock> getStocksOfCurrentGroup() {
         Tab selected = tabPane.getSelectionModel().getSelectedItem();
         if (selected == null) return Collections.emptyList();
@@ -316,62 +480,21 @@ public class MainStage extends BaseStage {
 
 
     /**
-     * 拉取单只股票数据并计算涨跌幅/额
+     * 拉取单只股票数据并写入行情存储
      */
-    private Optional<StockRow> getSocketData(String marketCode, String stockCode) {
+    private Optional<Quote> getSocketData(String marketCode, String stockCode) {
         try {
-            String url = "https://push2.eastmoney.com/api/qt/stock/trends2/get?secid="
-                    + marketCode + "." + stockCode
-                    + "&fields1=f1,f2,f3,f4,f5,f6,f7,f8,f9,f10,f11,f12,f13"
-                    + "&fields2=f51,f52,f53,f54,f55,f56,f57,f58";
-
-            HttpRequest req = HttpRequest.newBuilder(URI.create(url))
-                    .timeout(java.time.Duration.ofSeconds(8))
-                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/130.0.0.0 Safari/537.36")
-                    .header("Accept-Language", "zh-CN,zh;q=0.9,en;q=0.8")
-                    .GET()
-                    .build();
-
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
-            if (resp.statusCode() != 200) return Optional.empty();
-
-            JsonNode root = mapper.readTree(resp.body());
-            JsonNode dataNode = root.path("data");
-            if (dataNode.isMissingNode()) return Optional.empty();
-
-            String name = dataNode.path("name").asText("");
-            double preClose = dataNode.path("preClose").asDouble();
-
-            JsonNode trends = dataNode.path("trends");
-            if (trends.isMissingNode() || !trends.isArray() || trends.isEmpty()) return Optional.empty();
-
-            String last = trends.get(trends.size() - 1).asText(); // "... , price , ..."
-            String[] arr = last.split(",");
-            if (arr.length < 3) return Optional.empty();
-
-            double currPrice = Double.parseDouble(arr[2]);
-            double changeRate = (preClose == 0) ? 0 : (currPrice - preClose) / preClose;
-            double changeAmt = currPrice - preClose;
-
-            String codeShown = marketDict.getOrDefault(marketCode, "") + stockCode;
-            String changeRateStr = String.format(Locale.CHINA, "%.2f%%", changeRate * 100);
-
-            StockRow row = new StockRow(
-                    0,
-                    marketCode,
-                    stockCode,
-                    codeShown,
-                    name,
-                    currPrice,
-                    changeRate,
-                    changeRateStr,
-                    changeAmt
-            );
-            return Optional.of(row);
-        } catch (IOException | InterruptedException ex) {
+            Optional<Quote> quote = eastMoney.fetchLast(marketCode, stockCode);
+            quote.ifPresent(quoteStore::put);
+            return quote;
+        } catch (IOException ex) {
+            LOG.warn("fetch {}_{} error: {}", marketCode, stockCode, ex.getMessage());
+            return Optional.empty();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
             return Optional.empty();
         } catch (Exception ex) {
-            System.err.println("parse error: " + ex.getMessage());
+            LOG.error("parse error: {}", ex.getMessage());
             return Optional.empty();
         }
     }
@@ -414,31 +537,17 @@ public class MainStage extends BaseStage {
 
             validateStock(market, code).whenComplete((opt, err) -> Platform.runLater(() -> {
                 okBtnV.setDisable(false);
-                if (err != null || opt.isEmpty() || opt.get().getName() == null || opt.get().getName().isBlank()) {
+                if (err != null || opt.isEmpty() || opt.get().name() == null || opt.get().name().isBlank()) {
                     // 回滚 CSV
                     waiting.setContentText("抱歉，没有找到" + code + "这只股票的有效行情（可能代码错误/无数据/停牌）。");
                     return;
                 }
-                StockTableView table = getCurrGroup().getTableView();
+                getCurrGroup().getSubscription().add(new Stock(market, code));
                 // 校验通过：更新表格（立即展示这条）
-                StockRow row = opt.get();
-                String key = row.getMarketCode() + "_" + row.getRawCode();
-                synchronized (table) {
-                    StockRow existed = table.getRowByKey().get(key);
-                    if (existed == null) {
-                        row.setIndex(table.getItems().size() + 1);
-                        table.getRowByKey().put(key, row);
-                        table.getItems().add(row);
-                    } else {
-                        existed.setName(row.getName());
-                        existed.setPrice(row.getPrice());
-                        existed.setChangeRate(row.getChangeRate());
-                        existed.setChangeRateStr(row.getChangeRateStr());
-                        existed.setChangeAmt(row.getChangeAmt());
-                    }
-                }
+                Quote quote = opt.get();
+                getCurrGroup().getTableView().show(quote);
                 waiting.close();
-                ToastQueue.show(stage, "添加成功：" + (market.equals("0") ? "SZ" : "SH") + code + " · " + row.getName(),
+                ToastQueue.show(stage, "添加成功：" + (market.equals("0") ? "SZ" : "SH") + code + " · " + quote.name(),
                         2000);
             }));
         });
@@ -452,9 +561,9 @@ public class MainStage extends BaseStage {
     /**
      * 校验股票是否存在：能从接口拿到名称/价格即认为存在，返回最新行数据
      */
-    private CompletableFuture<Optional<StockRow>> validateStock(String market, String code) {
+    private CompletableFuture<Optional<Quote>> validateStock(String market, String code) {
         // 后台校验，避免卡 UI
-        return CompletableFuture.supplyAsync(() -> getSocketData(market, code));
+        return fetchEngine.submit(EastMoneyQuoteSource.HOST, () -> getSocketData(market, code));
     }
 
 
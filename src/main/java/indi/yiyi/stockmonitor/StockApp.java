@@ -2,6 +2,7 @@ package indi.yiyi.stockmonitor;
 
 import github.nonoas.jfx.flat.ui.theme.LightTheme;
 import indi.yiyi.stockmonitor.utils.AppConfig;
+import indi.yiyi.stockmonitor.utils.GroupConfig;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
@@ -23,5 +24,6 @@ public class StockApp extends Application {
     @Override
     public void stop() throws Exception {
         AppConfig.getConfigManager().saveConfig();
+        GroupConfig.flush();
     }
 }
@@ -0,0 +1,297 @@
+package indi.yiyi.stockmonitor.alert;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.data.Stock;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import indi.yiyi.stockmonitor.quote.QuoteSubscriptions;
+import indi.yiyi.stockmonitor.quote.TradingCalendar;
+import indi.yiyi.stockmonitor.utils.FixedDecimalFormatter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 价格提醒引擎
+ * <p>
+ * 规则按股票分组，每只股票的上穿、下穿价位以及较开盘的涨跌幅阈值分别存为有序数组。
+ * 每个刷新周期只对有变化的股票求值：二分查找上次价格与本次价格之间的阈值，逐个触发，
+ * 单只股票的开销为 O(log n + 触发数)，与规则总数无关。首次看到一只股票（或跨日）时只记录价格，不触发，
+ * 避免启动时对早已越过的价位集中提醒。同一规则在 debounceSeconds 内只提醒一次。
+ * <p>
+ * 引擎在 {@link QuoteSubscriptions} 中持有有规则的股票的订阅，股票不在任何分组中时仍会被拉取，规则照常触发。
+ * <p>
+ * {@link #evaluate} 只在抓取线程上调用；{@link #reload} 可在任意线程调用，替换整份索引。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class AlertEngine {
+
+    private static final int MARKET_OFFSET_SECONDS =
+            TradingCalendar.MARKET_ZONE.getRules().getOffset(Instant.EPOCH).getTotalSeconds();
+
+    /**
+     * 触发的提醒
+     */
+    public record Fired(AlertRule rule, Quote quote) {
+        public String message() {
+            return quote.name() + " " + quote.displayCode() + " " + rule.describe() + "，现价 "
+                    + FixedDecimalFormatter.toString(quote.price(), 3, (char) 0);
+        }
+    }
+
+    private final Function<String, Optional<IntradaySeries>> seriesLookup;
+    /**
+     * 有规则的股票，行情随每个周期取出的全部变化一起交给 {@link #evaluate}，订阅本身不处理回调
+     */
+    private final QuoteSubscriptions.Subscription subscription;
+
+    private volatile Map<String, SymbolRules> rulesByKey = Map.of();
+
+    /**
+     * 各股票上次求值时的状态，只在抓取线程上访问
+     */
+    private final Map<String, SymbolState> states = new HashMap<>();
+    private final Map<Long, Long> lastFiredMillis = new HashMap<>();
+
+    /**
+     * @param seriesLookup  按股票键取当日分时序列，用其第一根分钟线的开盘价；未加载时以当天首次看到的价格为开盘价
+     * @param subscriptions 登记有规则的股票，使其不依赖表格或其他订阅者也能被拉取
+     */
+    public AlertEngine(Function<String, Optional<IntradaySeries>> seriesLookup, QuoteSubscriptions subscriptions) {
+        this.seriesLookup = seriesLookup;
+        this.subscription = subscriptions.subscribe(List.of(), quotes -> {
+        });
+    }
+
+    /**
+     * 按新的规则集合重建索引，并把订阅替换为有规则的股票
+     */
+    public void reload(Collection<AlertRule> rules) {
+        Map<String, List<AlertRule>> byKey = new HashMap<>();
+        Map<String, Stock> stocks = new LinkedHashMap<>();
+        for (AlertRule rule : rules) {
+            byKey.computeIfAbsent(rule.key(), k -> new ArrayList<>()).add(rule);
+            stocks.putIfAbsent(rule.key(), new Stock(rule.marketCode(), rule.stockCode()));
+        }
+        subscription.retain(stocks.values());
+        Map<String, SymbolRules> index = new HashMap<>(byKey.size() * 2);
+        byKey.forEach((key, list) -> index.put(key, new SymbolRules(list)));
+        rulesByKey = index;
+    }
+
+    /**
+     * 规则总数
+     */
+    public int size() {
+        int n = 0;
+        for (SymbolRules r : rulesByKey.values()) {
+            n += r.size;
+        }
+        return n;
+    }
+
+    /**
+     * 对本周期有变化的行情求值
+     *
+     * @return 触发的提醒，没有时为空列表
+     */
+    public List<Fired> evaluate(Iterable<Quote> quotes, long nowMillis) {
+        Map<String, SymbolRules> index = rulesByKey;
+        if (index.isEmpty()) return List.of();
+
+        List<Fired> fired = null;
+        for (Quote q : quotes) {
+            SymbolRules rules = index.get(q.key());
+            if (rules == null || q.price() <= 0) continue;
+
+            long price = QuoteStore.toFixed(q.price());
+            long day = q.timestamp() > 0 ? Math.floorDiv(q.timestamp() + MARKET_OFFSET_SECONDS, 86400) : 0;
+            SymbolState state = states.get(q.key());
+            if (state == null || state.day != day) {
+                state = new SymbolState(day, price);
+                states.put(q.key(), state);
+            }
+            // 分时序列加载前以首次看到的价格暂代开盘价，加载后改用真实开盘价，改用的这一次不按涨跌幅触发
+            boolean openChanged = false;
+            if (!state.openFromSeries && rules.moveUp.size() > 0) {
+                long open = openOf(q.key(), day);
+                if (open > 0) {
+                    openChanged = state.open != open;
+                    state.open = open;
+                    state.openFromSeries = true;
+                }
+            }
+            long move = (price - state.open) * 10_000 / state.open;
+
+            int before = fired == null ? 0 : fired.size();
+            if (state.seen) {
+                fired = rules.above.crossedUp(state.price, price, q, fired);
+                fired = rules.below.crossedDown(state.price, price, q, fired);
+                if (!openChanged) {
+                    fired = rules.moveUp.crossedUp(state.move, move, q, fired);
+                    fired = rules.moveDown.crossedDown(state.move, move, q, fired);
+                }
+            }
+            state.seen = true;
+            state.price = price;
+            state.move = move;
+
+            if (fired != null && fired.size() > before) {
+                debounce(fired, before, nowMillis);
+            }
+        }
+        return fired == null ? List.of() : fired;
+    }
+
+    /**
+     * 去掉 from 之后仍在静默期内的提醒，其余记录触发时间
+     */
+    private void debounce(List<Fired> fired, int from, long nowMillis) {
+        int w = from;
+        for (int r = from; r < fired.size(); r++) {
+            Fired f = fired.get(r);
+            Long last = lastFiredMillis.get(f.rule().id());
+            if (last != null && nowMillis - last < f.rule().debounceSeconds() * 1000L) continue;
+            lastFiredMillis.put(f.rule().id(), nowMillis);
+            fired.set(w++, f);
+        }
+        fired.subList(w, fired.size()).clear();
+    }
+
+    /**
+     * 分时序列第一根分钟线的开盘价，序列未加载或不是当天时返回 0
+     */
+    private long openOf(String key, long day) {
+        Optional<IntradaySeries> series = seriesLookup.apply(key);
+        if (series.isEmpty() || series.get().size() == 0 || series.get().getTradeDate().toEpochDay() != day) return 0;
+        return QuoteStore.toFixed(series.get().openAt(0));
+    }
+
+    private static final class SymbolState {
+        final long day;
+        long open;
+        boolean openFromSeries;
+        long price;
+        long move;
+        boolean seen;
+
+        SymbolState(long day, long price) {
+            this.day = day;
+            this.open = price;
+            this.price = price;
+        }
+    }
+
+    /**
+     * 一只股票的全部规则，按类型分为四组有序阈值
+     */
+    private static final class SymbolRules {
+        final int size;
+        final Thresholds above;
+        final Thresholds below;
+        /**
+         * 较开盘涨跌幅，单位为万分之一
+         */
+        final Thresholds moveUp;
+        final Thresholds moveDown;
+
+        SymbolRules(List<AlertRule> rules) {
+            size = rules.size();
+            List<Thresholds.Entry> a = new ArrayList<>();
+            List<Thresholds.Entry> b = new ArrayList<>();
+            List<Thresholds.Entry> mu = new ArrayList<>();
+            List<Thresholds.Entry> md = new ArrayList<>();
+            for (AlertRule rule : rules) {
+                switch (rule.type()) {
+                    case ABOVE -> a.add(new Thresholds.Entry(QuoteStore.toFixed(rule.value()), rule));
+                    case BELOW -> b.add(new Thresholds.Entry(QuoteStore.toFixed(rule.value()), rule));
+                    case MOVE_FROM_OPEN -> {
+                        long bps = Math.round(Math.abs(rule.value()) * 100);
+                        mu.add(new Thresholds.Entry(bps, rule));
+                        md.add(new Thresholds.Entry(-bps, rule));
+                    }
+                }
+            }
+            above = new Thresholds(a);
+            below = new Thresholds(b);
+            moveUp = new Thresholds(mu);
+            moveDown = new Thresholds(md);
+        }
+    }
+
+    /**
+     * 按阈值升序排列的规则
+     */
+    private static final class Thresholds {
+        record Entry(long level, AlertRule rule) {
+        }
+
+        private final long[] levels;
+        private final AlertRule[] rules;
+
+        int size() {
+            return levels.length;
+        }
+
+        Thresholds(List<Entry> entries) {
+            entries.sort(Comparator.comparingLong(Entry::level));
+            levels = new long[entries.size()];
+            rules = new AlertRule[entries.size()];
+            for (int i = 0; i < levels.length; i++) {
+                levels[i] = entries.get(i).level();
+                rules[i] = entries.get(i).rule();
+            }
+        }
+
+        /**
+         * 触发 prev &lt; level &lt;= now 的规则
+         */
+        List<Fired> crossedUp(long prev, long now, Quote q, List<Fired> out) {
+            if (now <= prev || levels.length == 0) return out;
+            for (int i = firstAbove(prev); i < levels.length && levels[i] <= now; i++) {
+                out = add(out, rules[i], q);
+            }
+            return out;
+        }
+
+        /**
+         * 触发 now &lt;= level &lt; prev 的规则
+         */
+        List<Fired> crossedDown(long prev, long now, Quote q, List<Fired> out) {
+            if (now >= prev || levels.length == 0) return out;
+            for (int i = firstAbove(now - 1); i < levels.length && levels[i] < prev; i++) {
+                out = add(out, rules[i], q);
+            }
+            return out;
+        }
+
+        /**
+         * 第一个大于 v 的位置
+         */
+        private int firstAbove(long v) {
+            int i = Arrays.binarySearch(levels, v);
+            if (i < 0) return -i - 1;
+            // 相同阈值可能有多条规则，跳过所有等于 v 的
+            while (i < levels.length && levels[i] == v) i++;
+            return i;
+        }
+
+        private static List<Fired> add(List<Fired> out, AlertRule rule, Quote q) {
+            if (out == null) out = new ArrayList<>();
+            out.add(new Fired(rule, q));
+            return out;
+        }
+    }
+}
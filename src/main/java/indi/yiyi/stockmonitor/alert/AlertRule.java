@@ -0,0 +1,56 @@
+package indi.yiyi.stockmonitor.alert;
+
+import indi.yiyi.stockmonitor.utils.FixedDecimalFormatter;
+
+/**
+ * 单只股票的一条提醒规则
+ *
+ * @param id              规则编号，由 {@link indi.yiyi.stockmonitor.utils.AlertConfig} 分配
+ * @param value           {@link Type#ABOVE}、{@link Type#BELOW} 为价格（元），{@link Type#MOVE_FROM_OPEN} 为涨跌幅（%，取绝对值）
+ * @param debounceSeconds 同一规则两次提醒的最小间隔（秒）
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public record AlertRule(long id, String marketCode, String stockCode, Type type, double value, int debounceSeconds) {
+
+    public static final int DEFAULT_DEBOUNCE_SECONDS = 60;
+
+    public enum Type {
+        /**
+         * 价格由下向上穿过 value
+         */
+        ABOVE("上穿"),
+        /**
+         * 价格由上向下穿过 value
+         */
+        BELOW("下穿"),
+        /**
+         * 相对开盘价的涨幅或跌幅达到 value%
+         */
+        MOVE_FROM_OPEN("较开盘涨跌");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    public String key() {
+        return marketCode + "_" + stockCode;
+    }
+
+    /**
+     * 如“上穿 1500.000”“较开盘涨跌 3.00%”
+     */
+    public String describe() {
+        return type == Type.MOVE_FROM_OPEN
+                ? type.label() + " " + FixedDecimalFormatter.toString(Math.abs(value), 2, '%')
+                : type.label() + " " + FixedDecimalFormatter.toString(value, 3, (char) 0);
+    }
+}
@@ -0,0 +1,168 @@
+package indi.yiyi.stockmonitor.data;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 单只股票当日的分钟线序列
+ * <p>
+ * 分钟以“当日第几分钟”表示（如 9:31 为 571），与东方财富 trends2 的时间标签一致，
+ * 即每根 K 线以结束分钟标记。数据按列存放在基本类型数组中，读写均加锁，可在线程间共享。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class IntradaySeries {
+
+    /**
+     * A 股一个交易日约 241 根分钟线
+     */
+    private static final int INITIAL_CAPACITY = 242;
+
+    private final String key;
+    private final LocalDate tradeDate;
+
+    private int size;
+    private int[] minutes = new int[INITIAL_CAPACITY];
+    private double[] open = new double[INITIAL_CAPACITY];
+    private double[] close = new double[INITIAL_CAPACITY];
+    private double[] high = new double[INITIAL_CAPACITY];
+    private double[] low = new double[INITIAL_CAPACITY];
+    private long[] volume = new long[INITIAL_CAPACITY];
+    private double[] amount = new double[INITIAL_CAPACITY];
+
+    /**
+     * 已并入序列的累计成交量（手）与成交额（元）
+     */
+    private long totalVolume;
+    private double totalAmount;
+
+    public IntradaySeries(String key, LocalDate tradeDate) {
+        this.key = key;
+        this.tradeDate = tradeDate;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public LocalDate getTradeDate() {
+        return tradeDate;
+    }
+
+    /**
+     * 追加一根完整的分钟线（全量加载时使用）
+     */
+    public synchronized void append(int minute, double o, double c, double h, double l, long vol, double amt) {
+        ensureCapacity(size + 1);
+        minutes[size] = minute;
+        open[size] = o;
+        close[size] = c;
+        high[size] = h;
+        low[size] = l;
+        volume[size] = vol;
+        amount[size] = amt;
+        size++;
+        totalVolume += vol;
+        totalAmount += amt;
+    }
+
+    /**
+     * 将一次快照并入序列：同一分钟内更新最后一根线，否则追加新线
+     *
+     * @param minute    快照所属的分钟标签
+     * @param price     最新价
+     * @param cumVolume 当日累计成交量（手）
+     * @param cumAmount 当日累计成交额（元）
+     */
+    public synchronized void merge(int minute, double price, long cumVolume, double cumAmount) {
+        long dVol = Math.max(cumVolume - totalVolume, 0);
+        double dAmt = Math.max(cumAmount - totalAmount, 0);
+        int last = size - 1;
+        if (last >= 0 && minutes[last] > minute) {
+            // 乱序的旧快照，丢弃
+            return;
+        }
+        if (last >= 0 && minutes[last] == minute) {
+            close[last] = price;
+            high[last] = Math.max(high[last], price);
+            low[last] = Math.min(low[last], price);
+            volume[last] += dVol;
+            amount[last] += dAmt;
+            totalVolume += dVol;
+            totalAmount += dAmt;
+        } else {
+            append(minute, price, price, price, price, dVol, dAmt);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 最后一根线的分钟标签，序列为空时返回 -1
+     */
+    public synchronized int lastMinute() {
+        return size == 0 ? -1 : minutes[size - 1];
+    }
+
+    public synchronized double lastClose() {
+        return size == 0 ? Double.NaN : close[size - 1];
+    }
+
+    public synchronized int minuteAt(int i) {
+        return minutes[i];
+    }
+
+    public synchronized double openAt(int i) {
+        return open[i];
+    }
+
+    public synchronized double closeAt(int i) {
+        return close[i];
+    }
+
+    public synchronized double highAt(int i) {
+        return high[i];
+    }
+
+    public synchronized double lowAt(int i) {
+        return low[i];
+    }
+
+    public synchronized long volumeAt(int i) {
+        return volume[i];
+    }
+
+    public synchronized double amountAt(int i) {
+        return amount[i];
+    }
+
+    /**
+     * 复制从 from 开始的收盘价，用于绘图等只读场景
+     */
+    public synchronized double[] closesFrom(int from) {
+        return Arrays.copyOfRange(close, Math.min(from, size), size);
+    }
+
+    /**
+     * 复制从 from 开始的分钟标签
+     */
+    public synchronized int[] minutesFrom(int from) {
+        return Arrays.copyOfRange(minutes, Math.min(from, size), size);
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= minutes.length) return;
+        int cap = Math.max(n, minutes.length * 2);
+        minutes = Arrays.copyOf(minutes, cap);
+        open = Arrays.copyOf(open, cap);
+        close = Arrays.copyOf(close, cap);
+        high = Arrays.copyOf(high, cap);
+        low = Arrays.copyOf(low, cap);
+        volume = Arrays.copyOf(volume, cap);
+        amount = Arrays.copyOf(amount, cap);
+    }
+}
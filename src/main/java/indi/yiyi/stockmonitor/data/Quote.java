@@ -0,0 +1,41 @@
+package indi.yiyi.stockmonitor.data;
+
+import java.util.Map;
+
+/**
+ * 单只股票的一次行情快照
+ * <p>
+ * volume 为当日累计成交量（手），amount 为当日累计成交额（元），timestamp 为行情时间（epoch 秒），
+ * 接口未提供时为 0。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public record Quote(String marketCode, String stockCode, String name, double price, double preClose,
+                    long volume, double amount, long timestamp) {
+
+    private static final Map<String, String> MARKET_DICT = Map.of(
+            "0", "SZ",
+            "1", "SH"
+    );
+
+    public String key() {
+        return marketCode + "_" + stockCode;
+    }
+
+    public double changeAmt() {
+        return price - preClose;
+    }
+
+    public double changeRate() {
+        return (preClose == 0) ? 0 : (price - preClose) / preClose;
+    }
+
+    /**
+     * 带市场前缀的展示代码，如 SH600519
+     */
+    public String displayCode() {
+        return MARKET_DICT.getOrDefault(marketCode, "") + stockCode;
+    }
+}
@@ -1,7 +1,13 @@
 package indi.yiyi.stockmonitor.data;
 
+import indi.yiyi.stockmonitor.indicator.IndicatorEngine;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import indi.yiyi.stockmonitor.quote.QuoteSubscriptions;
 import indi.yiyi.stockmonitor.view.StockTableView;
 
+import java.util.Optional;
+import java.util.function.Function;
+
 /**
  * @author Nonoas
  * @date 2025/8/27
@@ -10,12 +16,16 @@ import indi.yiyi.stockmonitor.view.StockTableView;
 public class StockGroup {
     private final String name;
     private final StockTableView tableView;
+    private QuoteSubscriptions.Subscription subscription;
 
-    public StockGroup(String name) {
+    public StockGroup(String name, QuoteStore quoteStore, Function<String, Optional<IntradaySeries>> seriesLookup,
+                      IndicatorEngine indicators) {
         this.name = name;
-        this.tableView = new StockTableView(this);
+        this.tableView = new StockTableView(this, quoteStore, seriesLookup, indicators);
     }
 
     public String getName() { return name; }
     public StockTableView getTableView() { return tableView; }
+    public QuoteSubscriptions.Subscription getSubscription() { return subscription; }
+    public void setSubscription(QuoteSubscriptions.Subscription subscription) { this.subscription = subscription; }
 }
@@ -1,11 +1,21 @@
 package indi.yiyi.stockmonitor.data;
 
-import javafx.beans.property.DoubleProperty;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import indi.yiyi.stockmonitor.utils.FixedDecimalFormatter;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.DoubleBinding;
+import javafx.beans.binding.StringBinding;
 import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
 import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.value.ObservableValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
 
 /**
  * @author Nonoas
@@ -13,35 +23,40 @@ import javafx.beans.property.StringProperty;
  * @since
  */
 // ========= 数据模型 =========
+// 行情字段不在行内保存，按槽位从 QuoteStore 读取；槽位数据变化时由 refresh() 按变化的字段
+// 递增对应的版本（名称、价格与涨跌、分时与指标），只有依赖这些字段的可见单元格重新读取，
+// 不可见的行不产生任何计算；涨跌方向单独保存，只在正负号改变时通知行样式
 public class StockRow {
     private final String marketCode; // 原始字段，为了 key 组合
     private final String rawCode;    // 原始股票代码（不含市场前缀）
+    private final String code;       // 带市场前缀的展示代码
     private final IntegerProperty index = new SimpleIntegerProperty(0);
-    private final StringProperty code = new SimpleStringProperty("");
-    private final StringProperty name = new SimpleStringProperty("");
-    private final DoubleProperty price = new SimpleDoubleProperty(0);
-    private final DoubleProperty changeRate = new SimpleDoubleProperty(0);
-    private final StringProperty changeRateStr = new SimpleStringProperty("");
-    private final DoubleProperty changeAmt = new SimpleDoubleProperty(0);
-
-    public StockRow(int index,
-                    String marketCode,
-                    String rawCode,
-                    String codeShown,
-                    String name,
-                    double price,
-                    double changeRate,
-                    String changeRateStr,
-                    double changeAmt) {
+    private final LongProperty nameVersion = new SimpleLongProperty(0);
+    private final LongProperty quoteVersion = new SimpleLongProperty(0);
+    private final LongProperty seriesVersion = new SimpleLongProperty(0);
+    /**
+     * 涨跌额的符号：1 涨、-1 跌、0 平
+     */
+    private final ReadOnlyIntegerWrapper changeSign = new ReadOnlyIntegerWrapper(0);
+
+    private final QuoteStore store;
+    private final int slot;
+
+    // 单元格的值，首次使用时创建，之后每次返回同一个实例，滚动时不会反复创建绑定、堆积监听
+    private StringBinding nameBinding;
+    private DoubleBinding priceBinding;
+    private DoubleBinding changeRateBinding;
+    private DoubleBinding changeAmtBinding;
+    private Map<Object, DoubleBinding> seriesBindings;
+
+    public StockRow(int index, String marketCode, String rawCode, String codeShown, QuoteStore store, int slot) {
         this.marketCode = marketCode;
         this.rawCode = rawCode;
+        this.code = codeShown;
+        this.store = store;
+        this.slot = slot;
         setIndex(index);
-        setCode(codeShown);
-        setName(name);
-        setPrice(price);
-        setChangeRate(changeRate);
-        setChangeRateStr(changeRateStr);
-        setChangeAmt(changeAmt);
+        changeSign.set(Long.signum(store.changeFixed(slot)));
     }
 
     // getters for key
@@ -53,33 +68,68 @@ public class StockRow {
         return rawCode;
     }
 
+    /**
+     * 槽位数据已变化，通知依赖变化字段的可见单元格重新读取；需在 FX 线程调用
+     *
+     * @param fields 变化的字段，见 {@link QuoteStore#changedFields(int)}
+     */
+    public void refresh(int fields) {
+        if ((fields & QuoteStore.NAME) != 0) bump(nameVersion);
+        if ((fields & (QuoteStore.PRICE | QuoteStore.CHANGE)) != 0) bump(quoteVersion);
+        // 分时与指标由价格和成交量推算
+        if ((fields & (QuoteStore.PRICE | QuoteStore.VOLUME)) != 0) bump(seriesVersion);
+        if ((fields & QuoteStore.CHANGE) != 0) changeSign.set(Long.signum(store.changeFixed(slot)));
+    }
+
+    private static void bump(LongProperty version) {
+        version.set(version.get() + 1);
+    }
+
     // properties
     public IntegerProperty indexProperty() {
         return index;
     }
 
-    public StringProperty codeProperty() {
-        return code;
+    /**
+     * 分时与指标的版本，价格或成交量变化时递增
+     */
+    public LongProperty seriesVersionProperty() {
+        return seriesVersion;
+    }
+
+    public ReadOnlyIntegerProperty changeSignProperty() {
+        return changeSign.getReadOnlyProperty();
     }
 
-    public StringProperty nameProperty() {
-        return name;
+    public ObservableValue<String> nameValue() {
+        if (nameBinding == null) nameBinding = Bindings.createStringBinding(this::getName, nameVersion);
+        return nameBinding;
     }
 
-    public DoubleProperty priceProperty() {
-        return price;
+    public ObservableValue<Number> priceValue() {
+        if (priceBinding == null) priceBinding = Bindings.createDoubleBinding(this::getPrice, quoteVersion);
+        return priceBinding;
     }
 
-    public DoubleProperty changeRateProperty() {
-        return changeRate;
+    public ObservableValue<Number> changeRateValue() {
+        if (changeRateBinding == null) changeRateBinding = Bindings.createDoubleBinding(this::getChangeRate, quoteVersion);
+        return changeRateBinding;
     }
 
-    public StringProperty changeRateStrProperty() {
-        return changeRateStr;
+    public ObservableValue<Number> changeAmtValue() {
+        if (changeAmtBinding == null) changeAmtBinding = Bindings.createDoubleBinding(this::getChangeAmt, quoteVersion);
+        return changeAmtBinding;
     }
 
-    public DoubleProperty changeAmtProperty() {
-        return changeAmt;
+    /**
+     * 随分时版本重新计算的值（如指标列），同一个 id 总是返回同一个实例
+     *
+     * @param id    值的标识，如指标规格
+     * @param value 首次创建时使用的计算方法
+     */
+    public ObservableValue<Number> seriesValue(Object id, DoubleSupplier value) {
+        if (seriesBindings == null) seriesBindings = new HashMap<>(4);
+        return seriesBindings.computeIfAbsent(id, k -> Bindings.createDoubleBinding(value::getAsDouble, seriesVersion));
     }
 
     // getters/setters (for convenience)
@@ -92,50 +142,37 @@ public class StockRow {
     }
 
     public String getCode() {
-        return code.get();
-    }
-
-    public void setCode(String v) {
-        code.set(v);
+        return code;
     }
 
     public String getName() {
-        return name.get();
-    }
-
-    public void setName(String v) {
-        name.set(v);
+        return store.name(slot);
     }
 
     public double getPrice() {
-        return price.get();
+        return store.price(slot);
     }
 
-    public void setPrice(double v) {
-        price.set(v);
+    public double getPreClose() {
+        return QuoteStore.toYuan(store.preCloseFixed(slot));
     }
 
-    public double getChangeRate() {
-        return changeRate.get();
+    /**
+     * 股票键，格式同 {@link Quote#key()}
+     */
+    public String getKey() {
+        return marketCode + "_" + rawCode;
     }
 
-    public void setChangeRate(double v) {
-        changeRate.set(v);
+    public double getChangeRate() {
+        return store.changeRate(slot);
     }
 
     public String getChangeRateStr() {
-        return changeRateStr.get();
-    }
-
-    public void setChangeRateStr(String v) {
-        changeRateStr.set(v);
+        return FixedDecimalFormatter.toString(getChangeRate() * 100, 2, '%');
     }
 
     public double getChangeAmt() {
-        return changeAmt.get();
-    }
-
-    public void setChangeAmt(double v) {
-        changeAmt.set(v);
+        return store.change(slot);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package indi.yiyi.stockmonitor.history;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 单只股票一天分钟线的列式编码
+ * <p>
+ * 先写根数（varint），之后按列依次写出全部分钟线：
+ * <pre>
+ * 分钟标签  第一根为原值，之后为与上一根的差（varint，递增）
+ * 收盘价    第一根为原值，之后为与上一根收盘价的差（zig-zag varint）
+ * 开/高/低  与同一根收盘价的差（zig-zag varint）
+ * 成交量    原值（手，varint）
+ * 成交额    四舍五入到元（varint）
+ * </pre>
+ * 价格按 {@link QuoteStore#PRICE_SCALE} 转为定点整数。相邻分钟的价格变化很小，
+ * 一根分钟线通常只占十几个字节。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+final class BarCodec {
+
+    private BarCodec() {
+    }
+
+    /**
+     * 把序列编码到 out 的末尾
+     */
+    static void encode(IntradaySeries series, Output out) {
+        synchronized (series) {
+            int n = series.size();
+            out.varint(n);
+
+            int prevMinute = 0;
+            for (int i = 0; i < n; i++) {
+                int minute = series.minuteAt(i);
+                out.varint(minute - prevMinute);
+                prevMinute = minute;
+            }
+            long[] close = new long[n];
+            long prevClose = 0;
+            for (int i = 0; i < n; i++) {
+                close[i] = QuoteStore.toFixed(series.closeAt(i));
+                out.zigzag(close[i] - prevClose);
+                prevClose = close[i];
+            }
+            for (int i = 0; i < n; i++) {
+                out.zigzag(QuoteStore.toFixed(series.openAt(i)) - close[i]);
+            }
+            for (int i = 0; i < n; i++) {
+                out.zigzag(QuoteStore.toFixed(series.highAt(i)) - close[i]);
+            }
+            for (int i = 0; i < n; i++) {
+                out.zigzag(QuoteStore.toFixed(series.lowAt(i)) - close[i]);
+            }
+            for (int i = 0; i < n; i++) {
+                out.varint(Math.max(series.volumeAt(i), 0));
+            }
+            for (int i = 0; i < n; i++) {
+                out.varint(Math.max(Math.round(series.amountAt(i)), 0));
+            }
+        }
+    }
+
+    /**
+     * 从 in 的当前位置解码一个序列
+     */
+    static IntradaySeries decode(ByteBuffer in, String key, LocalDate day) {
+        int n = (int) varint(in);
+        int[] minutes = new int[n];
+        long[] close = new long[n];
+        long[] open = new long[n];
+        long[] high = new long[n];
+        long[] low = new long[n];
+
+        int minute = 0;
+        for (int i = 0; i < n; i++) {
+            minute += (int) varint(in);
+            minutes[i] = minute;
+        }
+        long c = 0;
+        for (int i = 0; i < n; i++) {
+            c += zigzag(in);
+            close[i] = c;
+        }
+        for (int i = 0; i < n; i++) {
+            open[i] = close[i] + zigzag(in);
+        }
+        for (int i = 0; i < n; i++) {
+            high[i] = close[i] + zigzag(in);
+        }
+        for (int i = 0; i < n; i++) {
+            low[i] = close[i] + zigzag(in);
+        }
+        long[] volume = new long[n];
+        for (int i = 0; i < n; i++) {
+            volume[i] = varint(in);
+        }
+
+        IntradaySeries series = new IntradaySeries(key, day);
+        for (int i = 0; i < n; i++) {
+            series.append(minutes[i], QuoteStore.toYuan(open[i]), QuoteStore.toYuan(close[i]),
+                    QuoteStore.toYuan(high[i]), QuoteStore.toYuan(low[i]), volume[i], varint(in));
+        }
+        return series;
+    }
+
+    static long varint(ByteBuffer in) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    static long zigzag(ByteBuffer in) {
+        long v = varint(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * 可增长的字节缓冲
+     */
+    static final class Output {
+        private byte[] buf;
+        private int size;
+
+        Output(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void varint(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void zigzag(long v) {
+            varint((v << 1) ^ (v >> 63));
+        }
+
+        void putInt(int v) {
+            ensure(4);
+            for (int i = 0; i < 4; i++) {
+                buf[size++] = (byte) (v >>> (8 * i));
+            }
+        }
+
+        void putLong(long v) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buf[size++] = (byte) (v >>> (8 * i));
+            }
+        }
+
+        void bytes(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, buf, size, b.length);
+            size += b.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        ByteBuffer buffer() {
+            return ByteBuffer.wrap(buf, 0, size);
+        }
+
+        private void ensure(int n) {
+            if (size + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + n));
+            }
+        }
+    }
+}
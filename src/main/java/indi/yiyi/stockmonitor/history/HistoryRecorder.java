@@ -0,0 +1,86 @@
+package indi.yiyi.stockmonitor.history;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.quote.TradingCalendar;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 在后台线程定期把当日分时序列保存到 {@link MinuteBarStore}
+ * <p>
+ * 启动时先汇总以前的行情记录并清理过期文件，之后每隔 saveIntervalMinutes 分钟保存一次，关闭时再保存一次。
+ * 保存与读写文件都不在抓取线程和 FX 线程上进行。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class HistoryRecorder {
+
+    private static final Logger LOG = LogManager.getLogger(HistoryRecorder.class);
+
+    private final MinuteBarStore store;
+    private final Supplier<Collection<IntradaySeries>> source;
+    private final Path journalDir;
+    private final int journalRetentionDays;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "history-thread");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param source     当前的分时序列
+     * @param journalDir 行情记录目录，其中今天以前的文件会被汇总为分钟线
+     */
+    public HistoryRecorder(MinuteBarStore store, Supplier<Collection<IntradaySeries>> source, Path journalDir,
+                           int journalRetentionDays) {
+        this.store = store;
+        this.source = source;
+        this.journalDir = journalDir;
+        this.journalRetentionDays = journalRetentionDays;
+    }
+
+    public void start(long saveIntervalMinutes) {
+        executor.execute(() -> store.maintain(journalDir, journalRetentionDays, LocalDate.now(TradingCalendar.MARKET_ZONE)));
+        executor.scheduleWithFixedDelay(this::save, saveIntervalMinutes, saveIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 停止定期保存，等待进行中的保存结束后再保存一次
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOG.warn("history save still running, skip final save");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        save();
+    }
+
+    public MinuteBarStore getStore() {
+        return store;
+    }
+
+    private void save() {
+        try {
+            store.save(source.get());
+        } catch (RuntimeException e) {
+            LOG.warn("history save error: {}", e.getMessage());
+        }
+    }
+}
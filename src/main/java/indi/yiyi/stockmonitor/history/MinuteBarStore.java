@@ -0,0 +1,389 @@
+package indi.yiyi.stockmonitor.history;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.quote.IntradaySeriesCache;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import indi.yiyi.stockmonitor.quote.TradingCalendar;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * 本地分钟线历史
+ * <p>
+ * 每个交易日一个文件 bars-yyyy-MM-dd.bin，每只股票的当日分钟线按 {@link BarCodec} 列式编码为一个连续的块，
+ * 文件末尾是股票到块位置的索引。索引按日缓存，读取一只股票一天的数据只需一次定位读取。
+ * <pre>
+ * 文件头  int 魔数、int 版本、long epochDay（小端）
+ * 数据块  各股票的编码块
+ * 索引    varint 条数，每条为 varint 键长度、键（UTF-8）、varint 偏移、varint 长度
+ * 文件尾  long 索引偏移、int 魔数
+ * </pre>
+ * 写入总是生成完整的新文件再原子替换，读者不会看到写了一半的文件；被替换的块随之消失，
+ * 文件不会因重复保存而变大。替换和删除文件时持有写锁并同时作废缓存的索引，读者在读锁内打开文件并取得索引，
+ * 因此缓存中的索引总是与读者打开的文件一致。
+ * 超过保留天数（history.retentionDays，默认 400）的文件由 {@link #maintain} 删除。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class MinuteBarStore {
+
+    private static final Logger LOG = LogManager.getLogger(MinuteBarStore.class);
+
+    static final int MAGIC = 0x52424D53; // "SMBR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int FOOTER_SIZE = 12;
+
+    private static final String PREFIX = "bars-";
+    private static final String SUFFIX = ".bin";
+
+    /**
+     * 缓存的索引天数，按最近使用淘汰
+     */
+    private static final int INDEX_CACHE_DAYS = 64;
+
+    private final Path dir;
+    private final int retentionDays;
+
+    /**
+     * 读锁：打开文件并取得索引；写锁：替换或删除文件并作废索引
+     */
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+
+    private final Map<LocalDate, Map<String, Block>> indexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LocalDate, Map<String, Block>> eldest) {
+            return size() > INDEX_CACHE_DAYS;
+        }
+    };
+
+    public MinuteBarStore(Path dir, int retentionDays) {
+        this.dir = dir;
+        this.retentionDays = retentionDays;
+    }
+
+    public static Path fileFor(Path dir, LocalDate day) {
+        return dir.resolve(PREFIX + day + SUFFIX);
+    }
+
+    /**
+     * 保存序列，按交易日分别写入；同一股票同一天已有的数据被替换
+     */
+    public void save(Collection<IntradaySeries> series) {
+        Map<LocalDate, List<IntradaySeries>> byDay = new TreeMap<>();
+        for (IntradaySeries s : series) {
+            if (s.size() == 0) continue;
+            byDay.computeIfAbsent(s.getTradeDate(), d -> new ArrayList<>()).add(s);
+        }
+        byDay.forEach((day, list) -> {
+            try {
+                write(day, list, true);
+            } catch (IOException e) {
+                LOG.warn("history save error {}: {}", day, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 读取一只股票一天的分钟线
+     *
+     * @param key 股票键，格式同 {@link indi.yiyi.stockmonitor.data.Quote#key()}
+     */
+    public Optional<IntradaySeries> read(String key, LocalDate day) {
+        List<IntradaySeries> list = range(List.of(key), day, day).get(key);
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
+
+    /**
+     * 读取多只股票在 [from, to] 内的分钟线，每个文件只打开一次
+     *
+     * @return 每只股票按日期升序的序列，没有数据的日期不出现
+     */
+    public Map<String, List<IntradaySeries>> range(Collection<String> keys, LocalDate from, LocalDate to) {
+        Map<String, List<IntradaySeries>> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            result.put(key, new ArrayList<>());
+        }
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            try (DayFile file = open(day)) {
+                if (file == null) continue;
+                for (String key : keys) {
+                    Block block = file.index().get(key);
+                    if (block == null) continue;
+                    result.get(key).add(BarCodec.decode(readBlock(file.channel(), block), key, day));
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("history read error {}: {}", day, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 把一个行情记录文件汇总为分钟线，只补充当天还没有分钟线的股票（当天关闭时已保存的数据更完整）
+     *
+     * @return 新写入的股票数
+     */
+    public int rollup(Path journal, LocalDate day) throws IOException {
+        Map<String, IntradaySeries> series = new HashMap<>();
+        TickJournal.replay(journal, (market, code, priceFixed, volume, exchangeSecond, receiveMillis) -> {
+            long second = exchangeSecond > 0 ? exchangeSecond : receiveMillis / 1000;
+            ZonedDateTime time = Instant.ofEpochSecond(second).atZone(TradingCalendar.MARKET_ZONE);
+            // 开盘前取到的快照时间是上一交易日收盘
+            if (!time.toLocalDate().equals(day)) return;
+            String key = market + "_" + code;
+            series.computeIfAbsent(key, k -> new IntradaySeries(k, day))
+                    .merge(IntradaySeriesCache.barMinute(time.toLocalTime()), QuoteStore.toYuan(priceFixed), volume, 0);
+        });
+        return write(day, series.values(), false);
+    }
+
+    /**
+     * 汇总 journalDir 下今天以前、尚未汇总过的行情记录，删除超过 journalRetentionDays 天的行情记录和超过保留天数的分钟线。
+     * 汇总成功后在行情记录旁留下 ticks-yyyy-MM-dd.rolled 标记，之后启动时不再重放该文件
+     */
+    public void maintain(Path journalDir, int journalRetentionDays, LocalDate today) {
+        for (Map.Entry<LocalDate, Path> e : list(journalDir, "ticks-", SUFFIX).entrySet()) {
+            LocalDate day = e.getKey();
+            if (!day.isBefore(today)) continue;
+            Path journal = e.getValue();
+            Path rolled = rolledFor(journal);
+            try {
+                if (!Files.exists(rolled)) {
+                    int added = rollup(journal, day);
+                    if (added > 0) LOG.info("history rollup {}: {} symbols", day, added);
+                    Files.createFile(rolled);
+                }
+                if (day.isBefore(today.minusDays(journalRetentionDays))) {
+                    Files.deleteIfExists(TickJournal.symbolsFor(journal));
+                    Files.deleteIfExists(journal);
+                    Files.deleteIfExists(rolled);
+                }
+            } catch (IOException ex) {
+                LOG.warn("history rollup error {}: {}", day, ex.getMessage());
+            }
+        }
+        for (Map.Entry<LocalDate, Path> e : list(dir, PREFIX, SUFFIX).entrySet()) {
+            if (!e.getKey().isBefore(today.minusDays(retentionDays))) continue;
+            fileLock.writeLock().lock();
+            try {
+                Files.deleteIfExists(e.getValue());
+                synchronized (indexes) {
+                    indexes.remove(e.getKey());
+                }
+            } catch (IOException ex) {
+                LOG.warn("history delete error {}: {}", e.getKey(), ex.getMessage());
+            } finally {
+                fileLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static Path rolledFor(Path journal) {
+        String name = journal.getFileName().toString();
+        return journal.resolveSibling(name.substring(0, name.length() - SUFFIX.length()) + ".rolled");
+    }
+
+    /**
+     * 重写一天的文件：新序列与旧文件中未被替换的块一起写入临时文件，再原子替换
+     *
+     * @param replace 为 false 时已有数据的股票保持不变
+     * @return 写入的新序列数
+     */
+    private synchronized int write(LocalDate day, Collection<IntradaySeries> series, boolean replace) throws IOException {
+        Files.createDirectories(dir);
+        Path file = fileFor(dir, day);
+        DayFile oldFile = open(day);
+        try {
+            Map<String, Block> old = oldFile == null ? Collections.emptyMap() : oldFile.index();
+
+            BarCodec.Output out = new BarCodec.Output(HEADER_SIZE + series.size() * 4096);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(day.toEpochDay());
+
+            Map<String, long[]> blocks = new LinkedHashMap<>();
+            for (IntradaySeries s : series) {
+                if (!replace && old.containsKey(s.getKey())) continue;
+                int start = out.size();
+                BarCodec.encode(s, out);
+                blocks.put(s.getKey(), new long[]{start, out.size() - start});
+            }
+            int added = blocks.size();
+            if (added == 0) return 0;
+
+            for (Map.Entry<String, Block> e : old.entrySet()) {
+                if (blocks.containsKey(e.getKey())) continue;
+                ByteBuffer bytes = readBlock(oldFile.channel(), e.getValue());
+                int start = out.size();
+                out.bytes(bytes.array());
+                blocks.put(e.getKey(), new long[]{start, out.size() - start});
+            }
+
+            long indexOffset = out.size();
+            out.varint(blocks.size());
+            for (Map.Entry<String, long[]> e : blocks.entrySet()) {
+                byte[] key = e.getKey().getBytes(StandardCharsets.UTF_8);
+                out.varint(key.length);
+                out.bytes(key);
+                out.varint(e.getValue()[0]);
+                out.varint(e.getValue()[1]);
+            }
+            out.putLong(indexOffset);
+            out.putInt(MAGIC);
+
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = out.buffer();
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                ch.force(true);
+            }
+            if (oldFile != null) {
+                oldFile.close();
+                oldFile = null;
+            }
+            fileLock.writeLock().lock();
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                synchronized (indexes) {
+                    indexes.remove(day);
+                }
+            } finally {
+                fileLock.writeLock().unlock();
+            }
+            return added;
+        } finally {
+            if (oldFile != null) oldFile.close();
+        }
+    }
+
+    /**
+     * 在读锁内打开一天的文件并取得索引，期间文件不会被替换，因此缓存的索引与打开的文件一致
+     *
+     * @return 文件不存在时返回 null
+     */
+    private DayFile open(LocalDate day) throws IOException {
+        Path file = fileFor(dir, day);
+        fileLock.readLock().lock();
+        try {
+            if (!Files.exists(file)) return null;
+            FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                return new DayFile(ch, index(day, ch));
+            } catch (IOException | RuntimeException e) {
+                ch.close();
+                throw e;
+            }
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 读取（或从缓存取得）一天的索引，须在 {@link #open} 的读锁内调用
+     */
+    private Map<String, Block> index(LocalDate day, FileChannel ch) throws IOException {
+        synchronized (indexes) {
+            Map<String, Block> cached = indexes.get(day);
+            if (cached != null) return cached;
+        }
+        long size = ch.size();
+        if (size < HEADER_SIZE + FOOTER_SIZE) throw new IOException("history file too short: " + day);
+        ByteBuffer footer = read(ch, size - FOOTER_SIZE, FOOTER_SIZE);
+        long indexOffset = footer.getLong(0);
+        if (footer.getInt(8) != MAGIC || indexOffset < HEADER_SIZE || indexOffset > size - FOOTER_SIZE) {
+            throw new IOException("not a history file: " + day);
+        }
+        ByteBuffer buf = read(ch, indexOffset, (int) (size - FOOTER_SIZE - indexOffset));
+        int n = (int) BarCodec.varint(buf);
+        Map<String, Block> index = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            byte[] key = new byte[(int) BarCodec.varint(buf)];
+            buf.get(key);
+            index.put(new String(key, StandardCharsets.UTF_8), new Block(BarCodec.varint(buf), (int) BarCodec.varint(buf)));
+        }
+        synchronized (indexes) {
+            indexes.put(day, index);
+        }
+        return index;
+    }
+
+    private static ByteBuffer readBlock(FileChannel ch, Block block) throws IOException {
+        return read(ch, block.offset(), block.length());
+    }
+
+    private static ByteBuffer read(FileChannel ch, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position()) < 0) throw new IOException("unexpected end of file");
+        }
+        return buf.flip();
+    }
+
+    /**
+     * 列出 dir 下名为 prefix + 日期 + suffix 的文件，按日期排序
+     */
+    private static Map<LocalDate, Path> list(Path dir, String prefix, String suffix) {
+        Map<LocalDate, Path> result = new TreeMap<>();
+        if (!Files.isDirectory(dir)) return result;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(p -> {
+                String name = p.getFileName().toString();
+                if (!name.startsWith(prefix) || !name.endsWith(suffix)) return;
+                try {
+                    result.put(LocalDate.parse(name.substring(prefix.length(), name.length() - suffix.length())), p);
+                } catch (DateTimeParseException ignored) {
+                    // 不是按日期命名的文件
+                }
+            });
+        } catch (IOException e) {
+            LOG.warn("list {} error: {}", dir, e.getMessage());
+        }
+        return result;
+    }
+
+    private record Block(long offset, int length) {
+    }
+
+    /**
+     * 打开的一天的文件及其索引
+     */
+    private record DayFile(FileChannel channel, Map<String, Block> index) implements Closeable {
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package indi.yiyi.stockmonitor.history;
+
+import indi.yiyi.stockmonitor.quote.QuoteSink;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import indi.yiyi.stockmonitor.quote.TradingCalendar;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按日分文件、只追加的二进制行情记录
+ * <p>
+ * 每个交易日一个文件 ticks-yyyy-MM-dd.bin，文件头 {@value #HEADER_SIZE} 字节，之后为定长 {@value #RECORD_SIZE} 字节的记录（小端）：
+ * <pre>
+ *  0  int   股票编号（当日文件内从 0 开始，对应关系在同名 .sym 文件中）
+ *  4  int   价格，1/1000 元
+ *  8  long  成交量（手）
+ * 16  long  接收时间，epoch 毫秒
+ * 24  int   交易所时间，epoch 秒
+ * 28  int   校验值，由前 28 字节计算，最后写入
+ * </pre>
+ * 文件按 {@link #CHUNK_SIZE} 分段预先扩展并内存映射，追加只是一次内存写入，不产生系统调用。
+ * 进程崩溃后已写入的记录仍在页缓存中；文件尾部预分配的零字节与写了一半的记录都无法通过校验，
+ * 读取到第一条无效记录即停止，因此崩溃后文件仍可读。同一股票价格与成交量都未变化时不重复记录。
+ * 编号与代码的对应关系在首次出现时追加到 .sym 文件，先于使用该编号的记录写入。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class TickJournal implements QuoteSink, Closeable {
+
+    private static final Logger LOG = LogManager.getLogger(TickJournal.class);
+
+    static final int MAGIC = 0x4A544D53; // "SMTJ"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 32;
+    /**
+     * 每次扩展并映射的大小，约 52 万条记录
+     */
+    static final long CHUNK_SIZE = 16L << 20;
+
+    private final Path dir;
+
+    private LocalDate day;
+    private long nextDayMillis;
+    private FileChannel channel;
+    private FileChannel symChannel;
+    private MappedByteBuffer chunk;
+    private long chunkStart;
+    private long position;
+
+    private final Map<String, Map<String, Integer>> idByMarket = new HashMap<>();
+    private int[] lastPrice = new int[0];
+    private long[] lastVolume = new long[0];
+    private int symbols;
+
+    private TickJournal(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * 打开 dir 下当日的记录文件，已存在时接着写
+     */
+    public static TickJournal open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        TickJournal journal = new TickJournal(dir);
+        synchronized (journal) {
+            journal.roll(System.currentTimeMillis());
+        }
+        return journal;
+    }
+
+    public static Path fileFor(Path dir, LocalDate day) {
+        return dir.resolve("ticks-" + day + ".bin");
+    }
+
+    static Path symbolsFor(Path journal) {
+        String name = journal.getFileName().toString();
+        return journal.resolveSibling(name.substring(0, name.length() - ".bin".length()) + ".sym");
+    }
+
+    @Override
+    public void accept(String marketCode, String stockCode, String name, double price, double preClose,
+                       long volume, double amount, long timestamp) {
+        append(marketCode, stockCode, QuoteStore.toFixed(price), volume, timestamp, System.currentTimeMillis());
+    }
+
+    /**
+     * 追加一条记录，与该股票上一条的价格、成交量相同时忽略；写入失败只记录日志
+     */
+    public synchronized void append(String marketCode, String stockCode, long priceFixed, long volume,
+                                    long exchangeSecond, long receiveMillis) {
+        if (channel == null) return;
+        try {
+            if (receiveMillis >= nextDayMillis) roll(receiveMillis);
+
+            int id = idOf(marketCode, stockCode);
+            int price = (int) priceFixed;
+            if (lastPrice[id] == price && lastVolume[id] == volume) return;
+            lastPrice[id] = price;
+            lastVolume[id] = volume;
+
+            if (position + RECORD_SIZE > chunkStart + CHUNK_SIZE) mapChunk(position);
+            int off = (int) (position - chunkStart);
+            int exchange = (int) exchangeSecond;
+            chunk.putInt(off, id);
+            chunk.putInt(off + 4, price);
+            chunk.putLong(off + 8, volume);
+            chunk.putLong(off + 16, receiveMillis);
+            chunk.putInt(off + 24, exchange);
+            chunk.putInt(off + 28, check(id, price, volume, receiveMillis, exchange));
+            position += RECORD_SIZE;
+        } catch (IOException e) {
+            LOG.warn("journal append error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 已写入的记录数
+     */
+    public synchronized long size() {
+        return channel == null ? 0 : (position - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    /**
+     * 把已写入的内容刷到磁盘，并截掉预分配的空白
+     */
+    @Override
+    public synchronized void close() {
+        closeFiles();
+    }
+
+    /**
+     * 按写入顺序读取一个记录文件，遇到第一条无效记录即停止
+     *
+     * @return 读取的记录数
+     */
+    public static long replay(Path journal, Visitor visitor) throws IOException {
+        List<String[]> symbols = readSymbols(symbolsFor(journal));
+        try (FileChannel ch = FileChannel.open(journal, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_SIZE) return 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            ch.read(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(8) != RECORD_SIZE) {
+                throw new IOException("not a tick journal: " + journal);
+            }
+
+            long count = 0;
+            ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE * 4096).order(ByteOrder.LITTLE_ENDIAN);
+            long pos = HEADER_SIZE;
+            while (pos + RECORD_SIZE <= size) {
+                buf.clear();
+                int n = ch.read(buf, pos);
+                if (n < RECORD_SIZE) break;
+                for (int off = 0; off + RECORD_SIZE <= n; off += RECORD_SIZE) {
+                    int id = buf.getInt(off);
+                    int price = buf.getInt(off + 4);
+                    long volume = buf.getLong(off + 8);
+                    long receive = buf.getLong(off + 16);
+                    int exchange = buf.getInt(off + 24);
+                    if (buf.getInt(off + 28) != check(id, price, volume, receive, exchange)
+                            || id < 0 || id >= symbols.size()) {
+                        return count;
+                    }
+                    String[] sym = symbols.get(id);
+                    visitor.tick(sym[0], sym[1], price, volume, Integer.toUnsignedLong(exchange), receive);
+                    count++;
+                }
+                pos += n - n % RECORD_SIZE;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 记录文件的读取回调
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * @param priceFixed 价格，1/1000 元，见 {@link QuoteStore#PRICE_SCALE}
+         */
+        void tick(String marketCode, String stockCode, long priceFixed, long volume, long exchangeSecond,
+                  long receiveMillis);
+    }
+
+    private int idOf(String marketCode, String stockCode) throws IOException {
+        Map<String, Integer> byCode = idByMarket.computeIfAbsent(marketCode, k -> new HashMap<>());
+        Integer id = byCode.get(stockCode);
+        if (id != null) return id;
+
+        int newId = symbols++;
+        byCode.put(stockCode, newId);
+        ensureCapacity(newId);
+        ByteBuffer line = StandardCharsets.UTF_8.encode(newId + "\t" + marketCode + "\t" + stockCode + "\n");
+        while (line.hasRemaining()) {
+            symChannel.write(line);
+        }
+        return newId;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < lastPrice.length) return;
+        int old = lastPrice.length;
+        int n = Math.max(old * 2, id + 1);
+        lastPrice = Arrays.copyOf(lastPrice, n);
+        lastVolume = Arrays.copyOf(lastVolume, n);
+        // 新编号的初始值不能与真实数据相等，否则第一条记录会被当作重复
+        Arrays.fill(lastPrice, old, n, Integer.MIN_VALUE);
+    }
+
+    /**
+     * 切换到 receiveMillis 所在交易日的文件
+     */
+    private void roll(long receiveMillis) throws IOException {
+        closeFiles();
+        day = Instant.ofEpochMilli(receiveMillis).atZone(TradingCalendar.MARKET_ZONE).toLocalDate();
+        nextDayMillis = day.plusDays(1).atStartOfDay(TradingCalendar.MARKET_ZONE).toInstant().toEpochMilli();
+
+        idByMarket.clear();
+        symbols = 0;
+        Arrays.fill(lastPrice, Integer.MIN_VALUE);
+        Arrays.fill(lastVolume, 0);
+
+        Path file = fileFor(dir, day);
+        Path symFile = symbolsFor(file);
+        List<String[]> known = new ArrayList<>();
+        long symEnd = Files.exists(symFile) ? parseSymbols(Files.readAllBytes(symFile), known) : 0;
+        for (String[] sym : known) {
+            idByMarket.computeIfAbsent(sym[0], k -> new HashMap<>()).put(sym[1], symbols);
+            ensureCapacity(symbols);
+            symbols++;
+        }
+        // 截掉崩溃时写了一半的最后一行，新编号从完整的行之后接着写，不会与残行连成一行
+        symChannel = FileChannel.open(symFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        symChannel.truncate(symEnd);
+        symChannel.position(symEnd);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, RECORD_SIZE).putLong(12, day.toEpochDay());
+            channel.write(header, 0);
+            position = HEADER_SIZE;
+        } else {
+            // 同一天重启：接着最后一条有效记录写，之后的内容（预分配空白或写了一半的记录）被覆盖
+            position = HEADER_SIZE + replay(file, (m, c, p, v, e, r) -> {
+            }) * RECORD_SIZE;
+        }
+        mapChunk(position);
+    }
+
+    private void mapChunk(long from) throws IOException {
+        if (chunk != null) chunk.force();
+        chunkStart = from;
+        chunk = channel.map(FileChannel.MapMode.READ_WRITE, chunkStart, CHUNK_SIZE);
+        chunk.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void closeFiles() {
+        if (channel == null) return;
+        try {
+            chunk.force();
+            chunk = null;
+            // 映射区在 GC 前不会释放，Windows 上截断可能失败，失败时保留预分配的空白，读取时按校验值忽略
+            try {
+                channel.truncate(position);
+            } catch (IOException e) {
+                LOG.debug("journal truncate skipped: {}", e.getMessage());
+            }
+            channel.close();
+            symChannel.force(false);
+            symChannel.close();
+        } catch (IOException e) {
+            LOG.warn("journal close error: {}", e.getMessage());
+        } finally {
+            channel = null;
+            symChannel = null;
+        }
+    }
+
+    private static List<String[]> readSymbols(Path symFile) throws IOException {
+        List<String[]> result = new ArrayList<>();
+        if (Files.exists(symFile)) parseSymbols(Files.readAllBytes(symFile), result);
+        return result;
+    }
+
+    /**
+     * 按编号顺序解析以换行结尾的完整行，遇到不完整（崩溃时写了一半）或编号不连续的行即停止
+     *
+     * @return 最后一个有效行之后的字节位置
+     */
+    private static long parseSymbols(byte[] data, List<String[]> out) {
+        int start = 0;
+        for (int nl = indexOf(data, start); nl >= 0; nl = indexOf(data, start)) {
+            String[] parts = new String(data, start, nl - start, StandardCharsets.UTF_8).split("\t");
+            if (parts.length != 3 || !parts[0].equals(String.valueOf(out.size()))) break;
+            out.add(new String[]{parts[1], parts[2]});
+            start = nl + 1;
+        }
+        return start;
+    }
+
+    private static int indexOf(byte[] data, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    static int check(int id, int price, long volume, long receiveMillis, int exchange) {
+        int h = MAGIC;
+        h = h * 31 + id;
+        h = h * 31 + price;
+        h = h * 31 + Long.hashCode(volume);
+        h = h * 31 + Long.hashCode(receiveMillis);
+        h = h * 31 + exchange;
+        return h ^ (h >>> 16);
+    }
+}
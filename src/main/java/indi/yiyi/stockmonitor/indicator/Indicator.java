@@ -0,0 +1,25 @@
+package indi.yiyi.stockmonitor.indicator;
+
+/**
+ * 流式技术指标
+ * <p>
+ * 每根完成的分钟线调用一次 {@link #onBar}，更新自身的滚动状态，耗时与占用内存都不随已处理的分钟线数增长；
+ * 尚未完成的分钟线每次刷新都会变化，只通过 {@link #value} 参与计算，不改变状态。
+ * 成交量单位为手，成交额单位为元，与 {@link indi.yiyi.stockmonitor.data.IntradaySeries} 一致。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public interface Indicator {
+
+    /**
+     * 一根已完成的分钟线
+     */
+    void onBar(double open, double high, double low, double close, long volume, double amount);
+
+    /**
+     * 已完成的分钟线加上正在形成的分钟线时的指标值，数据不足时返回 NaN
+     */
+    double value(double open, double high, double low, double close, long volume, double amount);
+}
@@ -0,0 +1,191 @@
+package indi.yiyi.stockmonitor.indicator;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.data.Quote;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 按股票维护流式指标
+ * <p>
+ * 表格显示某个指标列时，为其中每只股票 {@link #acquire} 该指标，不再显示时 {@link #release}，
+ * 同一股票同一指标按引用计数在表格间共享。每个刷新周期 {@link #update} 只处理有变化且至少有一个指标的股票：
+ * 从该股票的当日分时序列中取出新完成的分钟线（通常为 0 或 1 根）交给各指标，再以正在形成的最后一根计算当前值，
+ * 总开销与（股票数 × 启用的指标数）成正比。
+ * 分时序列首次可用、被重新加载或新增指标时，从第一根分钟线重新计算一次。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class IndicatorEngine {
+
+    private final Function<String, Optional<IntradaySeries>> seriesLookup;
+
+    private final Map<String, SymbolIndicators> symbols = new HashMap<>();
+
+    /**
+     * @param seriesLookup 按股票键取当日分时序列
+     */
+    public IndicatorEngine(Function<String, Optional<IntradaySeries>> seriesLookup) {
+        this.seriesLookup = seriesLookup;
+    }
+
+    /**
+     * 开始计算一只股票的一个指标，并立即按已有的分时序列计算一次
+     */
+    public void acquire(String key, IndicatorSpec spec) {
+        SymbolIndicators sym;
+        synchronized (this) {
+            sym = symbols.computeIfAbsent(key, k -> new SymbolIndicators());
+        }
+        synchronized (sym) {
+            Slot slot = sym.slots.get(spec);
+            if (slot != null) {
+                slot.refs++;
+                return;
+            }
+            sym.slots.put(spec, new Slot(spec));
+            // 新指标需要从第一根分钟线算起
+            sym.series = null;
+        }
+        update(key, sym);
+    }
+
+    /**
+     * 释放 {@link #acquire} 的指标，引用计数归零时不再计算
+     */
+    public void release(String key, IndicatorSpec spec) {
+        synchronized (this) {
+            SymbolIndicators sym = symbols.get(key);
+            if (sym == null) return;
+            synchronized (sym) {
+                Slot slot = sym.slots.get(spec);
+                if (slot == null || --slot.refs > 0) return;
+                sym.slots.remove(spec);
+                if (sym.slots.isEmpty()) symbols.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 当前计算中的（股票，指标）数量
+     */
+    public synchronized int size() {
+        int n = 0;
+        for (SymbolIndicators sym : symbols.values()) {
+            synchronized (sym) {
+                n += sym.slots.size();
+            }
+        }
+        return n;
+    }
+
+    /**
+     * 指标的最新值，未启用或数据不足时返回 NaN；可在任意线程调用
+     */
+    public double value(String key, IndicatorSpec spec) {
+        SymbolIndicators sym;
+        synchronized (this) {
+            sym = symbols.get(key);
+        }
+        if (sym == null) return Double.NaN;
+        synchronized (sym) {
+            Slot slot = sym.slots.get(spec);
+            return slot == null ? Double.NaN : slot.value;
+        }
+    }
+
+    /**
+     * 按本周期有变化的行情更新指标，需在分时序列并入这些行情之后调用
+     */
+    public void update(Iterable<Quote> quotes) {
+        for (Quote q : quotes) {
+            String key = q.key();
+            SymbolIndicators sym;
+            synchronized (this) {
+                sym = symbols.get(key);
+            }
+            if (sym != null) update(key, sym);
+        }
+    }
+
+    private void update(String key, SymbolIndicators sym) {
+        IntradaySeries series = seriesLookup.apply(key).orElse(null);
+        synchronized (sym) {
+            if (series == null) {
+                clear(sym);
+                return;
+            }
+            // 读取期间持有序列的锁：各访问方法的重入加锁开销很小，抓取线程也不会在中途并入新快照
+            synchronized (series) {
+                compute(sym, series);
+            }
+        }
+    }
+
+    private static void clear(SymbolIndicators sym) {
+        sym.series = null;
+        for (Slot slot : sym.slots.values()) {
+            slot.value = Double.NaN;
+        }
+    }
+
+    private static void compute(SymbolIndicators sym, IntradaySeries series) {
+        if (series.size() == 0) {
+            clear(sym);
+            return;
+        }
+        if (series != sym.series) {
+            sym.series = series;
+            sym.completed = 0;
+            for (Slot slot : sym.slots.values()) {
+                slot.indicator = slot.spec.create();
+            }
+        }
+
+        // 除最后一根外都已完成，只有最后一根还会随行情变化
+        int last = series.size() - 1;
+        for (int i = sym.completed; i < last; i++) {
+            double o = series.openAt(i), h = series.highAt(i), l = series.lowAt(i), c = series.closeAt(i);
+            long vol = series.volumeAt(i);
+            double amt = series.amountAt(i);
+            for (Slot slot : sym.slots.values()) {
+                slot.indicator.onBar(o, h, l, c, vol, amt);
+            }
+        }
+        sym.completed = Math.max(sym.completed, last);
+
+        double o = series.openAt(last), h = series.highAt(last), l = series.lowAt(last), c = series.closeAt(last);
+        long vol = series.volumeAt(last);
+        double amt = series.amountAt(last);
+        for (Slot slot : sym.slots.values()) {
+            slot.value = slot.indicator.value(o, h, l, c, vol, amt);
+        }
+    }
+
+    private static final class SymbolIndicators {
+        private final Map<IndicatorSpec, Slot> slots = new LinkedHashMap<>();
+        /**
+         * 已处理的分时序列，以及其中已交给各指标的完成分钟线数
+         */
+        private IntradaySeries series;
+        private int completed;
+    }
+
+    private static final class Slot {
+        private final IndicatorSpec spec;
+        private Indicator indicator;
+        private int refs = 1;
+        private double value = Double.NaN;
+
+        private Slot(IndicatorSpec spec) {
+            this.spec = spec;
+            this.indicator = spec.create();
+        }
+    }
+}
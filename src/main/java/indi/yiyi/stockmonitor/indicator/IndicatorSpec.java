@@ -0,0 +1,96 @@
+package indi.yiyi.stockmonitor.indicator;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * 指标种类与周期（分钟线根数），同一规格的指标在所有表格间共享
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public record IndicatorSpec(Type type, int period) {
+
+    public static final IndicatorSpec VWAP = new IndicatorSpec(Type.VWAP, 0);
+    public static final IndicatorSpec SMA_5 = new IndicatorSpec(Type.SMA, 5);
+    public static final IndicatorSpec EMA_12 = new IndicatorSpec(Type.EMA, 12);
+    public static final IndicatorSpec RSI_14 = new IndicatorSpec(Type.RSI, 14);
+    public static final IndicatorSpec ATR_14 = new IndicatorSpec(Type.ATR, 14);
+    public static final IndicatorSpec FROM_HIGH = new IndicatorSpec(Type.FROM_HIGH, 0);
+    public static final IndicatorSpec FROM_LOW = new IndicatorSpec(Type.FROM_LOW, 0);
+
+    /**
+     * 表格中提供的指标列
+     */
+    public static final List<IndicatorSpec> COLUMNS = List.of(VWAP, SMA_5, EMA_12, RSI_14, ATR_14, FROM_HIGH, FROM_LOW);
+
+    public enum Type {
+        /**
+         * 当日成交量加权均价
+         */
+        VWAP("均价", 3, false, p -> new Indicators.Vwap()),
+        SMA("SMA", 3, false, Indicators.Sma::new),
+        EMA("EMA", 3, false, Indicators.Ema::new),
+        /**
+         * Wilder 平滑的相对强弱指数，0–100
+         */
+        RSI("RSI", 2, false, Indicators.Rsi::new),
+        /**
+         * Wilder 平滑的分钟线平均真实波幅（元）
+         */
+        ATR("ATR", 3, false, Indicators.Atr::new),
+        /**
+         * 现价距当日最高价，不大于 0
+         */
+        FROM_HIGH("距最高", 2, true, p -> new Indicators.FromHigh()),
+        /**
+         * 现价距当日最低价，不小于 0
+         */
+        FROM_LOW("距最低", 2, true, p -> new Indicators.FromLow());
+
+        private final String label;
+        private final int scale;
+        private final boolean percent;
+        private final IntFunction<Indicator> factory;
+
+        Type(String label, int scale, boolean percent, IntFunction<Indicator> factory) {
+            this.label = label;
+            this.scale = scale;
+            this.percent = percent;
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * 列标题，如“EMA(12)”
+     */
+    public String label() {
+        return period > 0 ? type.label + "(" + period + ")" : type.label;
+    }
+
+    /**
+     * 显示的小数位数
+     */
+    public int scale() {
+        return type.scale;
+    }
+
+    /**
+     * 指标值是否为比例，按百分比显示
+     */
+    public boolean percent() {
+        return type.percent;
+    }
+
+    /**
+     * 配置中保存的名称，如“EMA_12”
+     */
+    public String id() {
+        return period > 0 ? type.name() + "_" + period : type.name();
+    }
+
+    public Indicator create() {
+        return type.factory.apply(period);
+    }
+}
@@ -0,0 +1,212 @@
+package indi.yiyi.stockmonitor.indicator;
+
+/**
+ * {@link IndicatorSpec.Type} 对应的指标实现
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+final class Indicators {
+
+    /**
+     * 每手股数，成交额 / (成交量 × 每手股数) 为每股均价
+     */
+    private static final int SHARES_PER_LOT = 100;
+
+    private Indicators() {
+    }
+
+    static final class Vwap implements Indicator {
+        private double amount;
+        private long volume;
+
+        @Override
+        public void onBar(double o, double h, double l, double c, long vol, double amt) {
+            amount += amt;
+            volume += vol;
+        }
+
+        @Override
+        public double value(double o, double h, double l, double c, long vol, double amt) {
+            long v = volume + vol;
+            return v > 0 ? (amount + amt) / ((double) v * SHARES_PER_LOT) : Double.NaN;
+        }
+    }
+
+    /**
+     * 收盘价的简单移动平均，环形缓冲保存最近 period 个收盘价
+     */
+    static final class Sma implements Indicator {
+        private final double[] ring;
+        private int next;
+        private int count;
+        private double sum;
+
+        Sma(int period) {
+            ring = new double[period];
+        }
+
+        @Override
+        public void onBar(double o, double h, double l, double c, long vol, double amt) {
+            if (count == ring.length) {
+                sum -= ring[next];
+            } else {
+                count++;
+            }
+            ring[next] = c;
+            sum += c;
+            next = (next + 1) % ring.length;
+        }
+
+        @Override
+        public double value(double o, double h, double l, double c, long vol, double amt) {
+            // 加入正在形成的分钟线后窗口内的 period 个收盘价
+            if (count + 1 < ring.length) return Double.NaN;
+            double s = count == ring.length ? sum - ring[next] : sum;
+            return (s + c) / ring.length;
+        }
+    }
+
+    /**
+     * 收盘价的指数移动平均，以第一根收盘价为初值
+     */
+    static final class Ema implements Indicator {
+        private final double alpha;
+        private double ema = Double.NaN;
+
+        Ema(int period) {
+            alpha = 2.0 / (period + 1);
+        }
+
+        @Override
+        public void onBar(double o, double h, double l, double c, long vol, double amt) {
+            ema = next(c);
+        }
+
+        @Override
+        public double value(double o, double h, double l, double c, long vol, double amt) {
+            return next(c);
+        }
+
+        private double next(double c) {
+            return Double.isNaN(ema) ? c : ema + alpha * (c - ema);
+        }
+    }
+
+    /**
+     * Wilder 平滑：前 period 个样本取算术平均，之后 avg = (avg × (period - 1) + x) / period
+     */
+    private static final class Wilder {
+        private final int period;
+        private int count;
+        private double avg;
+
+        Wilder(int period) {
+            this.period = period;
+        }
+
+        void add(double x) {
+            avg = next(x);
+            if (count < period) count++;
+        }
+
+        /**
+         * 加入 x 后的平均值，样本不足 period 个时返回 NaN
+         */
+        double peek(double x) {
+            return count + 1 < period ? Double.NaN : next(x);
+        }
+
+        private double next(double x) {
+            return count < period ? (avg * count + x) / (count + 1) : (avg * (period - 1) + x) / period;
+        }
+    }
+
+    static final class Rsi implements Indicator {
+        private final Wilder gain;
+        private final Wilder loss;
+        private double prevClose = Double.NaN;
+
+        Rsi(int period) {
+            gain = new Wilder(period);
+            loss = new Wilder(period);
+        }
+
+        @Override
+        public void onBar(double o, double h, double l, double c, long vol, double amt) {
+            if (!Double.isNaN(prevClose)) {
+                double d = c - prevClose;
+                gain.add(Math.max(d, 0));
+                loss.add(Math.max(-d, 0));
+            }
+            prevClose = c;
+        }
+
+        @Override
+        public double value(double o, double h, double l, double c, long vol, double amt) {
+            if (Double.isNaN(prevClose)) return Double.NaN;
+            double d = c - prevClose;
+            double g = gain.peek(Math.max(d, 0));
+            double lo = loss.peek(Math.max(-d, 0));
+            if (Double.isNaN(g) || Double.isNaN(lo)) return Double.NaN;
+            if (lo == 0) return g == 0 ? 50 : 100;
+            return 100 - 100 / (1 + g / lo);
+        }
+    }
+
+    static final class Atr implements Indicator {
+        private final Wilder tr;
+        private double prevClose = Double.NaN;
+
+        Atr(int period) {
+            tr = new Wilder(period);
+        }
+
+        @Override
+        public void onBar(double o, double h, double l, double c, long vol, double amt) {
+            tr.add(trueRange(h, l));
+            prevClose = c;
+        }
+
+        @Override
+        public double value(double o, double h, double l, double c, long vol, double amt) {
+            return tr.peek(trueRange(h, l));
+        }
+
+        private double trueRange(double h, double l) {
+            if (Double.isNaN(prevClose)) return h - l;
+            return Math.max(h - l, Math.max(Math.abs(h - prevClose), Math.abs(l - prevClose)));
+        }
+    }
+
+    static final class FromHigh implements Indicator {
+        private double high = Double.NEGATIVE_INFINITY;
+
+        @Override
+        public void onBar(double o, double h, double l, double c, long vol, double amt) {
+            high = Math.max(high, h);
+        }
+
+        @Override
+        public double value(double o, double h, double l, double c, long vol, double amt) {
+            double hi = Math.max(high, h);
+            return hi > 0 ? (c - hi) / hi : Double.NaN;
+        }
+    }
+
+    static final class FromLow implements Indicator {
+        private double low = Double.POSITIVE_INFINITY;
+
+        @Override
+        public void onBar(double o, double h, double l, double c, long vol, double amt) {
+            low = Math.min(low, l);
+        }
+
+        @Override
+        public double value(double o, double h, double l, double c, long vol, double amt) {
+            double lo = Math.min(low, l);
+            return lo > 0 && lo != Double.POSITIVE_INFINITY ? (c - lo) / lo : Double.NaN;
+        }
+    }
+}
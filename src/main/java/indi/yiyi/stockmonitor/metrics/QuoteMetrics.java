@@ -0,0 +1,355 @@
+package indi.yiyi.stockmonitor.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 行情链路指标登记表
+ * <p>
+ * 按环节记录延迟直方图：连接+首字节（请求发出到收到响应头）、读取响应体（响应头到最后一个字节）、
+ * 解析（解析器自身耗时，流式解析与读取响应体在时间上重叠）、界面更新（FX 线程上一次提交的执行时间）；
+ * 按接口记录成功、超时、出错、截止丢弃次数与 HTTP 状态码，并统计每分钟完成的刷新周期数。
+ * 诊断窗口与 JMX（{@link #OBJECT_NAME}）读取同一份数据。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public final class QuoteMetrics implements QuoteMetricsMXBean {
+
+    private static final Logger LOG = LogManager.getLogger(QuoteMetrics.class);
+
+    public static final String OBJECT_NAME = "indi.yiyi.stockmonitor:type=QuoteMetrics";
+
+    private static final QuoteMetrics INSTANCE = new QuoteMetrics();
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * 计时的环节
+     */
+    public enum Step {
+        CONNECT_TTFB("连接+首字节"),
+        BODY_READ("读取响应体"),
+        PARSE("解析"),
+        FX_APPLY("界面更新");
+
+        private final String label;
+
+        Step(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private final Map<Step, LatencyHistogram> latencies = new EnumMap<>(Step.class);
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Deque<Long> tickTimes = new ArrayDeque<>();
+
+    private QuoteMetrics() {
+        for (Step step : Step.values()) {
+            latencies.put(step, new LatencyHistogram());
+        }
+    }
+
+    public static QuoteMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * 注册到平台 MBeanServer，重复注册或注册失败时只记录日志
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException | RuntimeException e) {
+            LOG.warn("register mbean error: {}", e.getMessage());
+        }
+    }
+
+    public LatencyHistogram latency(Step step) {
+        return latencies.get(step);
+    }
+
+    public void record(Step step, long nanos) {
+        latencies.get(step).recordNanos(nanos);
+    }
+
+    public Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, Endpoint::new);
+    }
+
+    /**
+     * 按名称排序的全部接口
+     */
+    public List<Endpoint> endpoints() {
+        return new TreeMap<>(endpoints).values().stream().toList();
+    }
+
+    /**
+     * 登记一个由其他模块维护的计数，同名覆盖
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * 一个刷新周期完成
+     */
+    public void tick() {
+        long now = System.nanoTime();
+        synchronized (tickTimes) {
+            tickTimes.addLast(now);
+            expireTicks(now);
+        }
+    }
+
+    /**
+     * 为请求的响应处理计时：创建时视为请求发出，收到响应头时记录连接+首字节与状态码，
+     * 响应体读完时记录读取耗时，状态码为 200 时计为成功。请求未能得到响应的情况由调用方通过 {@link Endpoint#failed} 记录
+     */
+    public <T> HttpResponse.BodyHandler<T> timed(String endpoint, HttpResponse.BodyHandler<T> handler) {
+        Endpoint ep = endpoint(endpoint);
+        long sent = System.nanoTime();
+        return info -> {
+            long headers = System.nanoTime();
+            record(Step.CONNECT_TTFB, headers - sent);
+            ep.status(info.statusCode());
+            return new TimedSubscriber<>(handler.apply(info), ep, headers, info.statusCode() == 200);
+        };
+    }
+
+    // ========= JMX =========
+
+    @Override
+    public long getTicksPerMinute() {
+        synchronized (tickTimes) {
+            expireTicks(System.nanoTime());
+            return tickTimes.size();
+        }
+    }
+
+    @Override
+    public Map<String, Long> getLatencyCount() {
+        return byStep(LatencyHistogram::count);
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP50Micros() {
+        return byStep(h -> h.percentileMicros(50));
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP90Micros() {
+        return byStep(h -> h.percentileMicros(90));
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP99Micros() {
+        return byStep(h -> h.percentileMicros(99));
+    }
+
+    @Override
+    public Map<String, Long> getLatencyMaxMicros() {
+        return byStep(LatencyHistogram::maxMicros);
+    }
+
+    @Override
+    public Map<String, Long> getEndpointSuccess() {
+        return byEndpoint(Endpoint::success);
+    }
+
+    @Override
+    public Map<String, Long> getEndpointTimeout() {
+        return byEndpoint(Endpoint::timeout);
+    }
+
+    @Override
+    public Map<String, Long> getEndpointError() {
+        return byEndpoint(Endpoint::error);
+    }
+
+    @Override
+    public Map<String, Long> getEndpointShed() {
+        return byEndpoint(Endpoint::shed);
+    }
+
+    @Override
+    public Map<String, Long> getHttpStatus() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Endpoint ep : endpoints.values()) {
+            ep.statuses.forEach((code, n) -> result.put(ep.name + " " + code, n.sum()));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+        Map<String, Long> result = new TreeMap<>();
+        gauges.forEach((name, value) -> result.put(name, value.getAsLong()));
+        return result;
+    }
+
+    private Map<String, Long> byStep(ToLongFunction<LatencyHistogram> f) {
+        Map<String, Long> result = new TreeMap<>();
+        latencies.forEach((step, h) -> result.put(step.name(), f.applyAsLong(h)));
+        return result;
+    }
+
+    private Map<String, Long> byEndpoint(ToLongFunction<Endpoint> f) {
+        Map<String, Long> result = new TreeMap<>();
+        endpoints.forEach((name, ep) -> result.put(name, f.applyAsLong(ep)));
+        return result;
+    }
+
+    private void expireTicks(long now) {
+        while (!tickTimes.isEmpty() && now - tickTimes.peekFirst() > MINUTE_NANOS) {
+            tickTimes.removeFirst();
+        }
+    }
+
+    /**
+     * 单个接口的请求计数
+     */
+    public static final class Endpoint {
+        private final String name;
+        private final LongAdder success = new LongAdder();
+        private final LongAdder timeout = new LongAdder();
+        private final LongAdder error = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private Endpoint(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 请求失败，超时与其他错误分开计数
+         */
+        public void failed(Throwable e) {
+            Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+            if (cause instanceof HttpTimeoutException || cause instanceof HttpConnectTimeoutException
+                    || cause instanceof TimeoutException) {
+                timeout.increment();
+            } else {
+                error.increment();
+            }
+        }
+
+        /**
+         * 请求超过刷新周期的截止时间被丢弃
+         */
+        public void shed(int n) {
+            shed.add(n);
+        }
+
+        void status(int code) {
+            statuses.computeIfAbsent(code, c -> new LongAdder()).increment();
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long success() {
+            return success.sum();
+        }
+
+        public long timeout() {
+            return timeout.sum();
+        }
+
+        public long error() {
+            return error.sum();
+        }
+
+        public long shed() {
+            return shed.sum();
+        }
+
+        /**
+         * 各状态码的次数，按状态码排序
+         */
+        public Map<Integer, Long> statuses() {
+            Map<Integer, Long> result = new TreeMap<>();
+            statuses.forEach((code, n) -> result.put(code, n.sum()));
+            return result;
+        }
+    }
+
+    /**
+     * 转发给原订阅者，响应体读完时记录耗时
+     */
+    private static final class TimedSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final Endpoint endpoint;
+        private final long headers;
+        private final boolean ok;
+
+        TimedSubscriber(HttpResponse.BodySubscriber<T> delegate, Endpoint endpoint, long headers, boolean ok) {
+            this.delegate = delegate;
+            this.endpoint = endpoint;
+            this.headers = headers;
+            this.ok = ok;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            INSTANCE.record(Step.BODY_READ, System.nanoTime() - headers);
+            if (ok) endpoint.success.increment();
+            delegate.onComplete();
+        }
+    }
+}
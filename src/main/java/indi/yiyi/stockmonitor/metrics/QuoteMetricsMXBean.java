@@ -0,0 +1,48 @@
+package indi.yiyi.stockmonitor.metrics;
+
+import java.util.Map;
+
+/**
+ * 行情链路指标的 JMX 视图，注册名见 {@link QuoteMetrics#OBJECT_NAME}
+ * <p>
+ * 延迟类指标以环节名为 key、单位微秒；接口类指标以接口名为 key；HTTP 状态码以 “接口名 状态码” 为 key。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public interface QuoteMetricsMXBean {
+
+    /**
+     * 最近一分钟完成的刷新周期数
+     */
+    long getTicksPerMinute();
+
+    Map<String, Long> getLatencyCount();
+
+    Map<String, Long> getLatencyP50Micros();
+
+    Map<String, Long> getLatencyP90Micros();
+
+    Map<String, Long> getLatencyP99Micros();
+
+    Map<String, Long> getLatencyMaxMicros();
+
+    Map<String, Long> getEndpointSuccess();
+
+    Map<String, Long> getEndpointTimeout();
+
+    Map<String, Long> getEndpointError();
+
+    /**
+     * 超过刷新周期截止时间被丢弃的请求数
+     */
+    Map<String, Long> getEndpointShed();
+
+    Map<String, Long> getHttpStatus();
+
+    /**
+     * 其他模块登记的计数，如刷新周期的合并、丢弃、跳过次数
+     */
+    Map<String, Long> getGauges();
+}
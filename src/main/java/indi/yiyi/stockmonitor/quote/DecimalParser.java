@@ -0,0 +1,140 @@
+package indi.yiyi.stockmonitor.quote;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 直接在字节/字符数组上解析十进制数，避免为每个字段创建子串
+ * <p>
+ * 仅支持行情接口中出现的简单格式：可选负号、整数部分、可选小数部分，不支持指数形式。
+ * 尾数不超过 15 位有效数字时结果与 {@link Double#parseDouble(String)} 一致。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public final class DecimalParser {
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private DecimalParser() {
+    }
+
+    /**
+     * 解析 [from, to) 区间内的 ASCII 十进制数，空区间或非法字符返回 NaN
+     */
+    public static double parseDouble(byte[] buf, int from, int to) {
+        if (from >= to) return Double.NaN;
+        boolean negative = buf[from] == '-';
+        int i = negative ? from + 1 : from;
+        long mantissa = 0;
+        int scale = -1;
+        int digits = 0;
+        for (; i < to; i++) {
+            int c = buf[i];
+            if (c == '.') {
+                if (scale >= 0) return Double.NaN;
+                scale = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                    if (scale >= 0) scale++;
+                } else if (scale < 0) {
+                    return Double.parseDouble(new String(buf, from, to - from, StandardCharsets.US_ASCII));
+                }
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) return Double.NaN;
+        double v = scale > 0 ? mantissa / POW10[scale] : mantissa;
+        return negative ? -v : v;
+    }
+
+    /**
+     * 解析 [from, to) 区间内的十进制数，空区间或非法字符返回 NaN
+     */
+    public static double parseDouble(char[] buf, int from, int to) {
+        if (from >= to) return Double.NaN;
+        boolean negative = buf[from] == '-';
+        int i = negative ? from + 1 : from;
+        long mantissa = 0;
+        int scale = -1;
+        int digits = 0;
+        for (; i < to; i++) {
+            char c = buf[i];
+            if (c == '.') {
+                if (scale >= 0) return Double.NaN;
+                scale = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                    if (scale >= 0) scale++;
+                } else if (scale < 0) {
+                    return Double.parseDouble(new String(buf, from, to - from));
+                }
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) return Double.NaN;
+        double v = scale > 0 ? mantissa / POW10[scale] : mantissa;
+        return negative ? -v : v;
+    }
+
+    /**
+     * 解析 [from, to) 区间内的整数，遇到小数点时截断，非法时返回 0
+     */
+    public static long parseLong(byte[] buf, int from, int to) {
+        boolean negative = from < to && buf[from] == '-';
+        long v = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            int c = buf[i];
+            if (c == '.') break;
+            if (c < '0' || c > '9') return 0;
+            v = v * 10 + (c - '0');
+        }
+        return negative ? -v : v;
+    }
+
+    /**
+     * 解析 [from, to) 区间内的整数，遇到小数点时截断，非法时返回 0
+     */
+    public static long parseLong(char[] buf, int from, int to) {
+        boolean negative = from < to && buf[from] == '-';
+        long v = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            char c = buf[i];
+            if (c == '.') break;
+            if (c < '0' || c > '9') return 0;
+            v = v * 10 + (c - '0');
+        }
+        return negative ? -v : v;
+    }
+
+    /**
+     * 解析固定位数的非负整数（如日期中的年、月、日）
+     */
+    public static int parseFixed(byte[] buf, int from, int len) {
+        int v = 0;
+        for (int i = from; i < from + len; i++) {
+            v = v * 10 + (buf[i] - '0');
+        }
+        return v;
+    }
+
+    /**
+     * 解析固定位数的非负整数，字符数组版本
+     */
+    public static int parseFixed(char[] buf, int from, int len) {
+        int v = 0;
+        for (int i = from; i < from + len; i++) {
+            v = v * 10 + (buf[i] - '0');
+        }
+        return v;
+    }
+}
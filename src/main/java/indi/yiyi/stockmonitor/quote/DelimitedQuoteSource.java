@@ -0,0 +1,208 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.data.Stock;
+import indi.yiyi.stockmonitor.metrics.QuoteMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 新浪、腾讯这类“一行一只股票、字段用分隔符连接”的 GBK 文本行情源
+ * <p>
+ * 响应体按字节解析：逐行定位引号内的字段区间，数值直接在字节上解析，只有股票名称会解码为字符串。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+abstract class DelimitedQuoteSource implements QuoteSource {
+
+    private static final Logger LOG = LogManager.getLogger(DelimitedQuoteSource.class);
+
+    static final Charset GBK = Charset.forName("GBK");
+
+    private static final ZoneOffset MARKET_OFFSET = ZoneOffset.ofHours(8);
+
+    /**
+     * 单行最多解析的字段数，超出部分忽略
+     */
+    private static final int MAX_FIELDS = 48;
+
+    private final HttpClient http;
+    private final String baseUrl;
+
+    DelimitedQuoteSource(HttpClient http, String baseUrl) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public String host() {
+        return URI.create(baseUrl).getHost();
+    }
+
+    @Override
+    public List<List<Stock>> partition(List<Stock> stocks) {
+        return QuoteSources.partition(stocks, this::symbolOf, baseUrl, QuoteSources.maxUrlLength());
+    }
+
+    @Override
+    public CompletableFuture<Integer> fetchAsync(List<Stock> part, QuoteSink sink) {
+        String url = baseUrl + QuoteSources.join(part, this::symbolOf, ',');
+        HttpRequest req = decorate(QuoteSources.request(url)).build();
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+                http.sendAsync(req, QuoteMetrics.get().timed(name(), HttpResponse.BodyHandlers.ofByteArray()));
+        return QuoteSources.cancelling(exchange
+                .thenApply(resp -> {
+                    if (resp.statusCode() != 200) {
+                        LOG.warn("{} fetch http status: {}", name(), resp.statusCode());
+                        return 0;
+                    }
+                    long start = System.nanoTime();
+                    int n = parse(resp.body(), sink);
+                    QuoteMetrics.get().record(QuoteMetrics.Step.PARSE, System.nanoTime() - start);
+                    return n;
+                })
+                .exceptionally(e -> {
+                    QuoteMetrics.get().endpoint(name()).failed(e);
+                    LOG.warn("{} fetch error: {}", name(), e.getMessage());
+                    return 0;
+                }), exchange);
+    }
+
+    /**
+     * 解析整个响应体，每行形如 {@code <prefix><symbol>="f0<d>f1<d>...";}
+     *
+     * @return 解析的行数
+     */
+    int parse(byte[] body, QuoteSink out) {
+        int lines = 0;
+        int[] starts = new int[MAX_FIELDS];
+        int[] ends = new int[MAX_FIELDS];
+        int lineStart = 0;
+        int n = body.length;
+        while (lineStart < n) {
+            int lineEnd = indexOf(body, (byte) '\n', lineStart, n);
+            if (lineEnd < 0) lineEnd = n;
+            int eq = indexOf(body, (byte) '=', lineStart, lineEnd);
+            int open = eq < 0 ? -1 : indexOf(body, (byte) '"', eq, lineEnd);
+            int close = open < 0 ? -1 : lastIndexOf(body, (byte) '"', open + 1, lineEnd);
+            if (close > open + 1) {
+                // 代码位于 '=' 之前，取最后 8 个字符（如 sh600519）
+                int symbolStart = Math.max(lineStart, eq - 8);
+                int count = split(body, open + 1, close, delimiter(), starts, ends);
+                emit(body, symbolStart, eq, starts, ends, count, out);
+                lines++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return lines;
+    }
+
+    /**
+     * 转换为数据源使用的代码，如 sh600519；不支持的市场返回 null
+     */
+    String symbolOf(Stock s) {
+        return switch (s.marketCode()) {
+            case "0" -> "sz" + s.stockCode();
+            case "1" -> "sh" + s.stockCode();
+            default -> null;
+        };
+    }
+
+    /**
+     * 由 sh/sz 前缀得到市场代码
+     */
+    static String marketOf(byte[] buf, int symbolStart) {
+        return buf[symbolStart + 1] == 'h' ? "1" : "0";
+    }
+
+    static String stockCodeOf(byte[] buf, int symbolStart, int symbolEnd) {
+        return new String(buf, symbolStart + 2, symbolEnd - symbolStart - 2, StandardCharsets.US_ASCII);
+    }
+
+    static String text(byte[] buf, int[] starts, int[] ends, int i) {
+        return new String(buf, starts[i], ends[i] - starts[i], GBK);
+    }
+
+    static double number(byte[] buf, int[] starts, int[] ends, int i) {
+        return DecimalParser.parseDouble(buf, starts[i], ends[i]);
+    }
+
+    static long integer(byte[] buf, int[] starts, int[] ends, int i) {
+        return DecimalParser.parseLong(buf, starts[i], ends[i]);
+    }
+
+    /**
+     * 按北京时间换算为 epoch 秒
+     */
+    static long epochSecond(int year, int month, int day, int hour, int minute, int second) {
+        return LocalDateTime.of(year, month, day, hour, minute, second).toEpochSecond(MARKET_OFFSET);
+    }
+
+    /**
+     * 在 [from, to) 内按分隔符切分，只记录字段边界，返回字段数
+     */
+    private static int split(byte[] buf, int from, int to, byte delimiter, int[] starts, int[] ends) {
+        int count = 0;
+        int start = from;
+        for (int i = from; i < to && count < starts.length; i++) {
+            if (buf[i] == delimiter) {
+                starts[count] = start;
+                ends[count] = i;
+                count++;
+                start = i + 1;
+            }
+        }
+        if (count < starts.length && start < to) {
+            starts[count] = start;
+            ends[count] = to;
+            count++;
+        }
+        return count;
+    }
+
+    private static int indexOf(byte[] buf, byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == b) return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] buf, byte b, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (buf[i] == b) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 字段分隔符
+     */
+    abstract byte delimiter();
+
+    /**
+     * 为请求补充数据源要求的请求头
+     */
+    HttpRequest.Builder decorate(HttpRequest.Builder builder) {
+        return builder;
+    }
+
+    /**
+     * 将一行字段转换为快照写入 out，无效数据直接忽略
+     *
+     * @param symbolStart 代码（如 sh600519）起始下标
+     * @param symbolEnd   代码结束下标（即 '=' 的位置）
+     */
+    abstract void emit(byte[] buf, int symbolStart, int symbolEnd, int[] starts, int[] ends, int count, QuoteSink out);
+}
@@ -0,0 +1,160 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.data.Stock;
+import indi.yiyi.stockmonitor.metrics.QuoteMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 东方财富行情源
+ * <p>
+ * 批量接口（ulist）一次请求返回多只股票的最新快照，按 URL 最大长度切分为若干批，
+ * 每个刷新周期只需要一到几次请求；分时接口（trends2）返回当日全部分钟线，仅在首次加载时使用。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class EastMoneyQuoteSource implements QuoteSource {
+
+    public static final String NAME = "EastMoney";
+
+    private static final Logger LOG = LogManager.getLogger(EastMoneyQuoteSource.class);
+
+    public static final String HOST = "push2.eastmoney.com";
+
+    /**
+     * 分时接口在 {@link QuoteMetrics} 中的名称，批量接口使用 {@link #NAME}
+     */
+    public static final String TRENDS_ENDPOINT = NAME + "/trends2";
+
+    private static final String DEFAULT_BATCH_URL = "https://" + HOST + "/api/qt/ulist.np/get"
+            + "?fltt=2&invt=2&fields=f2,f5,f6,f12,f13,f14,f18,f124&secids=";
+
+    private static final String DEFAULT_TRENDS_URL = "https://" + HOST + "/api/qt/stock/trends2/get"
+            + "?fields1=f1,f2,f3,f4,f5,f6,f7,f8,f9,f10,f11,f12,f13"
+            + "&fields2=f51,f52,f53,f54,f55,f56,f57,f58&secid=";
+
+    private final HttpClient http;
+    /**
+     * 实际使用的地址，可由 {@link Endpoints} 指向模拟行情服务
+     */
+    private final String batchUrl = Endpoints.resolve(DEFAULT_BATCH_URL);
+    private final String trendsUrl = Endpoints.resolve(DEFAULT_TRENDS_URL);
+
+    public EastMoneyQuoteSource(HttpClient http) {
+        this.http = http;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String host() {
+        return HOST;
+    }
+
+    @Override
+    public List<List<Stock>> partition(List<Stock> stocks) {
+        return QuoteSources.partition(stocks, EastMoneyQuoteSource::secid, batchUrl, QuoteSources.maxUrlLength());
+    }
+
+    /**
+     * 批量拉取一批股票快照，响应体边到达边解析并写入 sink
+     */
+    @Override
+    public CompletableFuture<Integer> fetchAsync(List<Stock> part, QuoteSink sink) {
+        String url = batchUrl + QuoteSources.join(part, EastMoneyQuoteSource::secid, ',');
+        CompletableFuture<HttpResponse<Integer>> exchange =
+                http.sendAsync(QuoteSources.request(url).build(), QuoteMetrics.get().timed(NAME, UlistParser.bodyHandler(sink)));
+        return QuoteSources.cancelling(exchange
+                .thenApply(HttpResponse::body)
+                .exceptionally(e -> {
+                    QuoteMetrics.get().endpoint(NAME).failed(e);
+                    LOG.warn("batch fetch error: {}", e.getMessage());
+                    return 0;
+                }), exchange);
+    }
+
+    private static String secid(Stock s) {
+        return s.marketCode() + "." + s.stockCode();
+    }
+
+    /**
+     * 异步拉取单只股票当日完整分时数据，响应体在 HttpClient 的线程上收齐后直接解析，等待期间不占用线程；
+     * 返回的 future 被取消时中止请求
+     *
+     * @return 名称、昨收与分钟线序列；非 200 响应、无数据或请求失败时以 empty 完成
+     */
+    public CompletableFuture<Optional<Trends>> fetchTrendsAsync(String marketCode, String stockCode) {
+        String key = marketCode + "_" + stockCode;
+        HttpResponse.BodyHandler<Optional<Trends>> handler = info -> info.statusCode() == 200
+                ? HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), body -> parseTrends(body, key))
+                : HttpResponse.BodySubscribers.replacing(Optional.empty());
+        CompletableFuture<HttpResponse<Optional<Trends>>> exchange = http.sendAsync(
+                QuoteSources.request(trendsUrl + marketCode + "." + stockCode).build(),
+                QuoteMetrics.get().timed(TRENDS_ENDPOINT, handler));
+        return QuoteSources.cancelling(exchange
+                .thenApply(HttpResponse::body)
+                .exceptionally(e -> {
+                    QuoteMetrics.get().endpoint(TRENDS_ENDPOINT).failed(e);
+                    LOG.warn("trends load error {}: {}", key, e.getMessage());
+                    return Optional.empty();
+                }), exchange);
+    }
+
+    private static Optional<Trends> parseTrends(byte[] body, String key) {
+        long start = System.nanoTime();
+        try {
+            return TrendsParser.parseSeries(new ByteArrayInputStream(body), key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            QuoteMetrics.get().record(QuoteMetrics.Step.PARSE, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 拉取单只股票的最新价，只解析名称、昨收与最后一根分钟线
+     */
+    public Optional<Quote> fetchLast(String marketCode, String stockCode) throws IOException, InterruptedException {
+        HttpResponse<InputStream> resp = sendTrends(marketCode, stockCode);
+        try (InputStream body = resp.body()) {
+            if (resp.statusCode() != 200) return Optional.empty();
+            long start = System.nanoTime();
+            Optional<Quote> quote = TrendsParser.parseLast(body, marketCode, stockCode);
+            QuoteMetrics.get().record(QuoteMetrics.Step.PARSE, System.nanoTime() - start);
+            return quote;
+        }
+    }
+
+    private HttpResponse<InputStream> sendTrends(String marketCode, String stockCode) throws IOException, InterruptedException {
+        try {
+            return http.send(QuoteSources.request(trendsUrl + marketCode + "." + stockCode).build(),
+                    QuoteMetrics.get().timed(TRENDS_ENDPOINT, HttpResponse.BodyHandlers.ofInputStream()));
+        } catch (IOException e) {
+            QuoteMetrics.get().endpoint(TRENDS_ENDPOINT).failed(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 分时接口的解析结果
+     */
+    public record Trends(String name, double preClose, IntradaySeries series) {
+    }
+}
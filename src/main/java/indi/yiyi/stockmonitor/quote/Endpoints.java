@@ -0,0 +1,45 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.utils.AppConfig;
+
+/**
+ * 行情、联想接口地址的覆盖
+ * <p>
+ * 各数据源的默认地址指向线上接口。配置项 endpoint.&lt;主机名&gt;（如 endpoint.push2.eastmoney.com）
+ * 把该主机替换为给定的地址，endpoint.default 替换全部主机；取值只包含协议、主机与端口，如
+ * {@code http://127.0.0.1:8600}，路径与参数保持不变。配置项也可用同名 JVM 系统属性指定，
+ * 用于让应用或基准测试连接本地的模拟行情服务（src/mock）。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public final class Endpoints {
+
+    private static final String PREFIX = "endpoint.";
+
+    private Endpoints() {
+    }
+
+    /**
+     * 按配置替换 url 的协议、主机与端口，未配置时原样返回
+     */
+    public static String resolve(String url) {
+        // 不用 URI 解析：联想接口的 url 末尾带有用户输入，可能包含 URI 不允许的字符
+        int hostStart = url.indexOf("://") + 3;
+        int pathStart = url.indexOf('/', hostStart);
+        String authority = pathStart < 0 ? url.substring(hostStart) : url.substring(hostStart, pathStart);
+        int colon = authority.indexOf(':');
+        String host = colon < 0 ? authority : authority.substring(0, colon);
+
+        String override = AppConfig.get(PREFIX + host, null);
+        if (override == null || override.isBlank()) {
+            override = AppConfig.get(PREFIX + "default", null);
+        }
+        if (override == null || override.isBlank()) return url;
+
+        String origin = override.trim();
+        if (origin.endsWith("/")) origin = origin.substring(0, origin.length() - 1);
+        return pathStart < 0 ? origin : origin + url.substring(pathStart);
+    }
+}
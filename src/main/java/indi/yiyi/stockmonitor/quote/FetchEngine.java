@@ -0,0 +1,269 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.utils.AppConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 行情请求执行引擎
+ * <p>
+ * 刷新周期的批量请求与分时加载都经 {@link #submitAsync} 以 HttpClient 异步请求发出，
+ * 同一主机同时在途的请求数受限，超出的请求排队而不占用线程；
+ * {@link #allAsync} 为一组请求设置截止时间，到期时取消未完成的请求（排队中的不再发出，已发出的中止）并计入 shed。
+ * 只有阻塞式的 {@link #submit}（校验单只股票等零星请求）在独立线程上执行
+ * （运行时支持虚拟线程时使用虚拟线程，否则使用守护线程池），与异步请求共用同一主机的并发上限。
+ * 截止时间的计时与批次结果的汇总在引擎自己的单个守护线程（{@link #scheduler()}）上执行，不占用公共 ForkJoinPool。
+ * <p>
+ * 配置项：fetch.maxInFlightPerHost（每个主机的并发上限，默认 6）。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class FetchEngine {
+
+    private static final Logger LOG = LogManager.getLogger(FetchEngine.class);
+
+    private static final int DEFAULT_MAX_IN_FLIGHT_PER_HOST = 6;
+
+    private final ExecutorService executor = newExecutor();
+    private final ScheduledExecutorService scheduler = newScheduler();
+    private final Map<String, HostLimiter> limitersByHost = new ConcurrentHashMap<>();
+    private final int maxInFlightPerHost;
+
+    private final AtomicLong shedTotal = new AtomicLong();
+
+    public FetchEngine() {
+        this(AppConfig.getInt("fetch.maxInFlightPerHost", DEFAULT_MAX_IN_FLIGHT_PER_HOST));
+    }
+
+    public FetchEngine(int maxInFlightPerHost) {
+        this.maxInFlightPerHost = Math.max(maxInFlightPerHost, 1);
+    }
+
+    /**
+     * 提交单个阻塞请求，拿到许可后在独立线程上执行，等待许可时不设截止时间
+     */
+    public <T> CompletableFuture<T> submit(String host, Callable<T> task) {
+        return submitAsync(host, () -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor));
+    }
+
+    /**
+     * 按主机并发上限发出一个异步请求：有空闲许可时立即调用 request，否则排队，
+     * 同一主机前一个请求结束时再发出，排队期间不占用线程。
+     * 返回的 future 被取消时：尚在排队的请求不再发出，已发出的请求一并取消 request 返回的 future。
+     *
+     * @param request 发出请求，返回的 future 被取消时应中止请求（见 {@link QuoteSources#cancelling}）
+     */
+    public <T> CompletableFuture<T> submitAsync(String host, Supplier<CompletableFuture<T>> request) {
+        HostLimiter limiter = limiter(host);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        BooleanSupplier start = () -> {
+            // 排队期间已被取消，许可交给下一个
+            if (result.isDone()) return false;
+            CompletableFuture<T> f;
+            try {
+                f = request.get();
+            } catch (RuntimeException e) {
+                limiter.release();
+                result.completeExceptionally(e);
+                return true;
+            }
+            f.whenComplete((r, e) -> {
+                limiter.release();
+                if (e != null) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.complete(r);
+                }
+            });
+            result.whenComplete((r, e) -> {
+                if (result.isCancelled()) f.cancel(true);
+            });
+            return true;
+        };
+        if (limiter.tryAcquire(start)) start.getAsBoolean();
+        return result;
+    }
+
+    /**
+     * 为一组异步请求设置截止时间，全部完成或到期后汇总结果，不阻塞调用线程；
+     * 到期时取消未完成的请求并计入 shed，排队中的不再发出，已发出的中止 HTTP 请求
+     */
+    public <T> CompletableFuture<Batch<T>> allAsync(String host, List<CompletableFuture<T>> futures, Duration deadline) {
+        List<T> results = Collections.synchronizedList(new ArrayList<>(futures.size()));
+        AtomicInteger shed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        CompletableFuture<?>[] stages = new CompletableFuture<?>[futures.size()];
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = futures.get(i).handle((r, e) -> {
+                if (e == null) {
+                    if (r != null) results.add(r);
+                } else if (unwrap(e) instanceof CancellationException) {
+                    shed.incrementAndGet();
+                } else {
+                    failed.incrementAndGet();
+                    LOG.warn("fetch task error: {}", String.valueOf(unwrap(e)));
+                }
+                return null;
+            });
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(stages);
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (all.isDone()) return;
+            // 从后往前取消：排队的请求在列表靠后，先取消它们，已发出的请求被取消时释放的许可就不会再发出本批的请求
+            for (int i = futures.size() - 1; i >= 0; i--) {
+                futures.get(i).cancel(true);
+            }
+        }, deadline.toMillis(), TimeUnit.MILLISECONDS);
+        all.whenComplete((v, e) -> timer.cancel(false));
+        // 无论由哪个线程完成（HttpClient 的线程或计时线程），结果都在 scheduler 上交给调用方
+        return all.thenApplyAsync(v -> {
+            if (shed.get() > 0) {
+                shedTotal.addAndGet(shed.get());
+                LOG.warn("{}: {} of {} requests shed at deadline", host, shed.get(), futures.size());
+            }
+            return new Batch<>(List.copyOf(results), shed.get(), failed.get());
+        }, scheduler);
+    }
+
+    /**
+     * 引擎的计时线程，{@link #allAsync} 的结果在此线程上完成；调用方的后续处理可用 thenXxxAsync 指定它，
+     * 避免落到公共 ForkJoinPool
+     */
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 累计被丢弃的请求数
+     */
+    public long getShedTotal() {
+        return shedTotal.get();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+    }
+
+    private HostLimiter limiter(String host) {
+        return limitersByHost.computeIfAbsent(host, h -> new HostLimiter(maxInFlightPerHost));
+    }
+
+    /**
+     * 优先使用虚拟线程（JDK 21+），当前编译目标为 17，故通过反射获取
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger n = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "fetch-worker-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private static ScheduledExecutorService newScheduler() {
+        ScheduledThreadPoolExecutor s = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "fetch-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        // 批次提前完成时取消的计时任务立即移出队列
+        s.setRemoveOnCancelPolicy(true);
+        return s;
+    }
+
+    /**
+     * 一个刷新周期的执行结果
+     *
+     * @param results 成功返回的结果
+     * @param shed    超过截止时间被丢弃的请求数
+     * @param failed  执行出错的请求数
+     */
+    public record Batch<T>(List<T> results, int shed, int failed) {
+    }
+
+    /**
+     * 一个主机的异步许可：许可用完时把待发出的请求排队，释放许可时直接发出下一个
+     */
+    private static final class HostLimiter {
+        private final int max;
+        private int inFlight;
+        private final ArrayDeque<BooleanSupplier> waiting = new ArrayDeque<>();
+
+        HostLimiter(int max) {
+            this.max = max;
+        }
+
+        /**
+         * @return 是否立即拿到许可；否则 start 排队，轮到时由 {@link #release} 调用
+         */
+        synchronized boolean tryAcquire(BooleanSupplier start) {
+            if (inFlight < max) {
+                inFlight++;
+                return true;
+            }
+            waiting.add(start);
+            return false;
+        }
+
+        /**
+         * 把许可交给下一个排队的请求，跳过排队期间已取消的（start 返回 false）
+         */
+        void release() {
+            while (true) {
+                BooleanSupplier next;
+                synchronized (this) {
+                    next = waiting.poll();
+                    if (next == null) {
+                        inFlight--;
+                        return;
+                    }
+                }
+                if (next.getAsBoolean()) return;
+            }
+        }
+    }
+}
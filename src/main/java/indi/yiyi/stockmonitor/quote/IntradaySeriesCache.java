@@ -0,0 +1,127 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.metrics.QuoteMetrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 按股票缓存当日分时序列
+ * <p>
+ * 每只股票每天只通过 trends2 全量拉取一次分钟线，之后每个刷新周期把批量快照并入最后一根分钟线，
+ * 因此每次刷新的传输量与解析量不随交易时间增长。其他组件可通过 {@link #get(String)} 读取序列。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class IntradaySeriesCache {
+
+    private static final int OPEN_MINUTE = 9 * 60 + 30;
+    private static final int MORNING_CLOSE_MINUTE = 11 * 60 + 30;
+    private static final int AFTERNOON_OPEN_MINUTE = 13 * 60;
+    private static final int CLOSE_MINUTE = 15 * 60;
+
+    private final EastMoneyQuoteSource client;
+    private final Map<String, IntradaySeries> seriesByKey = new ConcurrentHashMap<>();
+
+    /**
+     * 等待全量加载的股票（以触发加载的快照表示）
+     */
+    private final Queue<Quote> pending = new ConcurrentLinkedQueue<>();
+    private final Set<String> pendingKeys = ConcurrentHashMap.newKeySet();
+
+    public IntradaySeriesCache(EastMoneyQuoteSource client) {
+        this.client = client;
+    }
+
+    /**
+     * 获取某只股票的当日分时序列
+     */
+    public Optional<IntradaySeries> get(String key) {
+        return Optional.ofNullable(seriesByKey.get(key));
+    }
+
+    /**
+     * 当前缓存的全部序列
+     */
+    public Collection<IntradaySeries> values() {
+        return List.copyOf(seriesByKey.values());
+    }
+
+    public void put(IntradaySeries series) {
+        seriesByKey.put(series.getKey(), series);
+    }
+
+    /**
+     * 将一批快照并入已缓存的序列；尚未加载或已跨日的股票排队等待全量加载
+     */
+    public void merge(Iterable<Quote> quotes) {
+        for (Quote q : quotes) {
+            if (q.timestamp() <= 0) continue;
+            ZonedDateTime time = Instant.ofEpochSecond(q.timestamp()).atZone(TradingCalendar.MARKET_ZONE);
+            IntradaySeries series = seriesByKey.get(q.key());
+            if (series == null || !series.getTradeDate().equals(time.toLocalDate())) {
+                if (pendingKeys.add(q.key())) {
+                    pending.add(q);
+                }
+                continue;
+            }
+            series.merge(barMinute(time.toLocalTime()), q.price(), q.volume(), q.amount());
+        }
+    }
+
+    /**
+     * 全量加载排队中的股票，每次最多 limit 只，避免开盘时集中请求；
+     * 截止时间前未完成的股票会在下次合并快照时重新排队
+     *
+     * @return 本批加载结束时完成，调用方无需等待
+     */
+    public CompletableFuture<Void> loadPending(FetchEngine engine, int limit, Duration deadline) {
+        List<Quote> batch = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            Quote q = pending.poll();
+            if (q == null) break;
+            batch.add(q);
+        }
+        if (batch.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        List<CompletableFuture<Optional<EastMoneyQuoteSource.Trends>>> futures = new ArrayList<>(batch.size());
+        for (Quote q : batch) {
+            futures.add(engine.submitAsync(client.host(), () -> client.fetchTrendsAsync(q.marketCode(), q.stockCode())));
+        }
+        return engine.allAsync(client.host(), futures, deadline).thenAccept(result -> {
+            QuoteMetrics.get().endpoint(EastMoneyQuoteSource.TRENDS_ENDPOINT).shed(result.shed());
+            for (Optional<EastMoneyQuoteSource.Trends> trends : result.results()) {
+                trends.ifPresent(t -> put(t.series()));
+            }
+            for (Quote q : batch) {
+                pendingKeys.remove(q.key());
+            }
+        });
+    }
+
+    /**
+     * 计算快照所属的分钟线标签：trends2 以结束分钟标记，如 9:30:25 的快照属于 9:31
+     */
+    public static int barMinute(LocalTime time) {
+        int minute = time.getHour() * 60 + time.getMinute() + 1;
+        if (minute <= OPEN_MINUTE) return OPEN_MINUTE;
+        if (minute > MORNING_CLOSE_MINUTE && minute <= AFTERNOON_OPEN_MINUTE) return MORNING_CLOSE_MINUTE;
+        return Math.min(minute, CLOSE_MINUTE);
+    }
+}
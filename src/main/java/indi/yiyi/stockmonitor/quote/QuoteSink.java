@@ -0,0 +1,28 @@
+package indi.yiyi.stockmonitor.quote;
+
+/**
+ * 行情解析结果的接收方
+ * <p>
+ * 解析器每解析出一只股票就回调一次，不需要为每只股票创建 {@link indi.yiyi.stockmonitor.data.Quote}；
+ * 字段含义与 {@link indi.yiyi.stockmonitor.data.Quote} 相同。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+@FunctionalInterface
+public interface QuoteSink {
+
+    void accept(String marketCode, String stockCode, String name, double price, double preClose,
+                long volume, double amount, long timestamp);
+
+    /**
+     * 先写入本 sink，再写入 next
+     */
+    default QuoteSink andThen(QuoteSink next) {
+        return (marketCode, stockCode, name, price, preClose, volume, amount, timestamp) -> {
+            accept(marketCode, stockCode, name, price, preClose, volume, amount, timestamp);
+            next.accept(marketCode, stockCode, name, price, preClose, volume, amount, timestamp);
+        };
+    }
+}
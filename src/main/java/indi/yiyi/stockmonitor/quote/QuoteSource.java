@@ -0,0 +1,70 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.data.Stock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 行情数据源
+ * <p>
+ * 实现类负责把一组股票转换为一到几次批量请求，并把响应解析为 {@link Quote}。
+ * 单批请求失败时只丢弃该批结果，不抛出异常。调用方先用 {@link #partition(List)} 切分，
+ * 再对每一批调用 {@link #fetchAsync(List, QuoteSink)}，请求之间共享连接并发执行，不占用等待线程。
+ * 解析结果直接写入调用方给出的 {@link QuoteSink}（通常为 {@link QuoteStore}）。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public interface QuoteSource {
+
+    /**
+     * 数据源名称，与配置项 quote.source 的取值对应
+     */
+    String name();
+
+    /**
+     * 行情接口的主机名，用于按主机限制并发
+     */
+    String host();
+
+    /**
+     * 按单次请求能容纳的数量切分股票列表，每一批恰好对应一次请求
+     */
+    List<List<Stock>> partition(List<Stock> stocks);
+
+    /**
+     * 异步拉取一批股票的快照并写入 sink，该批应来自 {@link #partition(List)}，只发起一次请求
+     *
+     * @param sink 同一请求内按顺序回调，不同请求可能在不同线程上并发回调
+     * @return 写入的股票数，失败时为 0
+     */
+    CompletableFuture<Integer> fetchAsync(List<Stock> part, QuoteSink sink);
+
+    /**
+     * 异步拉取一批股票的快照，结果收集为列表；失败时以空列表完成
+     */
+    default CompletableFuture<List<Quote>> fetchAsync(List<Stock> part) {
+        List<Quote> result = new ArrayList<>(part.size());
+        return fetchAsync(part, (m, c, name, price, preClose, volume, amount, ts) ->
+                result.add(new Quote(m, c, name, price, preClose, volume, amount, ts)))
+                .thenApply(n -> result);
+    }
+
+    /**
+     * 同步拉取全部股票快照，供不关心线程占用的场景使用
+     */
+    default List<Quote> fetch(List<Stock> stocks) {
+        List<CompletableFuture<List<Quote>>> futures = partition(stocks).stream()
+                .map(this::fetchAsync)
+                .toList();
+        List<Quote> result = new ArrayList<>(stocks.size());
+        for (CompletableFuture<List<Quote>> f : futures) {
+            result.addAll(f.join());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.data.Stock;
+import indi.yiyi.stockmonitor.utils.AppConfig;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 行情数据源工厂与公共工具
+ * <p>
+ * 通过配置项 quote.source 选择数据源：EastMoney（默认）、Sina、Tencent。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public final class QuoteSources {
+
+    static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/130.0.0.0 Safari/537.36";
+
+    /**
+     * 批量请求 URL 的默认最大长度
+     */
+    private static final int DEFAULT_MAX_URL_LENGTH = 2000;
+
+    /**
+     * HttpClient 回调线程数
+     */
+    private static final int HTTP_THREADS = 2;
+
+    private QuoteSources() {
+    }
+
+    /**
+     * 创建行情请求共用的 HttpClient
+     * <p>
+     * 优先协商 HTTP/2，同一主机的并发请求复用一条多路复用连接；
+     * 回调线程固定为少量守护线程，线程数不随自选股数量增长。
+     */
+    public static HttpClient newHttpClient() {
+        AtomicInteger n = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(HTTP_THREADS, r -> {
+            Thread t = new Thread(r, "quote-http-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(8))
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * 按配置创建当前使用的数据源
+     */
+    public static QuoteSource create(HttpClient http) {
+        String name = AppConfig.getConfigManager().get("quote.source", EastMoneyQuoteSource.NAME);
+        return create(name, http);
+    }
+
+    public static QuoteSource create(String name, HttpClient http) {
+        if (SinaQuoteSource.NAME.equalsIgnoreCase(name)) {
+            return new SinaQuoteSource(http);
+        }
+        if (TencentQuoteSource.NAME.equalsIgnoreCase(name)) {
+            return new TencentQuoteSource(http);
+        }
+        return new EastMoneyQuoteSource(http);
+    }
+
+    /**
+     * 按 URL 长度切分股票列表，保证每批 baseUrl + 以分隔符连接的代码 不超过 maxUrlLength；
+     * 单个代码超长也至少单独成批。symbolOf 返回 null 的股票会被忽略
+     */
+    static List<List<Stock>> partition(List<Stock> stocks, Function<Stock, String> symbolOf,
+                                       String baseUrl, int maxUrlLength) {
+        int budget = Math.max(maxUrlLength - baseUrl.length(), 1);
+        List<List<Stock>> parts = new ArrayList<>();
+        List<Stock> current = new ArrayList<>();
+        int length = 0;
+        for (Stock s : stocks) {
+            String symbol = symbolOf.apply(s);
+            if (symbol == null) continue;
+            if (!current.isEmpty() && length + 1 + symbol.length() > budget) {
+                parts.add(current);
+                current = new ArrayList<>();
+                length = 0;
+            }
+            length += current.isEmpty() ? symbol.length() : symbol.length() + 1;
+            current.add(s);
+        }
+        if (!current.isEmpty()) parts.add(current);
+        return parts;
+    }
+
+    /**
+     * 将一批股票的代码以分隔符连接
+     */
+    static String join(List<Stock> stocks, Function<Stock, String> symbolOf, char separator) {
+        StringBuilder sb = new StringBuilder();
+        for (Stock s : stocks) {
+            String symbol = symbolOf.apply(s);
+            if (symbol == null) continue;
+            if (sb.length() > 0) sb.append(separator);
+            sb.append(symbol);
+        }
+        return sb.toString();
+    }
+
+    static int maxUrlLength() {
+        return AppConfig.getInt("quote.batch.maxUrlLength", DEFAULT_MAX_URL_LENGTH);
+    }
+
+    static HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(8))
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Language", "zh-CN,zh;q=0.9,en;q=0.8")
+                .GET();
+    }
+
+    /**
+     * HttpClient 只在取消 sendAsync 直接返回的 future 时中止请求，取消其派生的 future 不会向上传递；
+     * 返回的 result 被取消时一并取消 exchange
+     */
+    static <T> CompletableFuture<T> cancelling(CompletableFuture<T> result, CompletableFuture<?> exchange) {
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) exchange.cancel(true);
+        });
+        return result;
+    }
+}
@@ -0,0 +1,257 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.data.Quote;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 按列存储的最新行情
+ * <p>
+ * 每只股票在首次写入时分配一个 int 槽位，各字段保存在按槽位索引的基本类型数组中，
+ * 价格以 1/1000 元的定点 long 保存。解析器作为 {@link QuoteSink} 直接写入，
+ * 字段有变化的槽位被标记并记录变化的字段（{@link #NAME}、{@link #PRICE}、{@link #CHANGE}、{@link #VOLUME}），
+ * 刷新周期结束时由 {@link #drainChanged()} 取出，取出的字段可按槽位由 {@link #changedFields(int)} 读取；
+ * 表格行只在可见时按槽位读取，不再为每只股票、每个周期保存一组属性对象。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class QuoteStore implements QuoteSink {
+
+    /**
+     * 定点价格的单位：1/1000 元
+     */
+    public static final long PRICE_SCALE = 1000;
+
+    // 变化字段
+    public static final int NAME = 1;
+    public static final int PRICE = 1 << 1;
+    /**
+     * 涨跌额与涨跌幅：价格或昨收变化
+     */
+    public static final int CHANGE = 1 << 2;
+    /**
+     * 成交量或成交额
+     */
+    public static final int VOLUME = 1 << 3;
+    public static final int ALL_FIELDS = NAME | PRICE | CHANGE | VOLUME;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Map<String, Integer> slotByKey = new HashMap<>();
+    /**
+     * 按市场、代码两级查找槽位，写入时不必拼接 key
+     */
+    private final Map<String, Map<String, Integer>> slotByMarket = new HashMap<>();
+    private int size;
+
+    private String[] marketCode = new String[INITIAL_CAPACITY];
+    private String[] stockCode = new String[INITIAL_CAPACITY];
+    private String[] name = new String[INITIAL_CAPACITY];
+    private long[] price = new long[INITIAL_CAPACITY];
+    private long[] preClose = new long[INITIAL_CAPACITY];
+    private long[] change = new long[INITIAL_CAPACITY];
+    private long[] volume = new long[INITIAL_CAPACITY];
+    /**
+     * 成交额，单位元
+     */
+    private long[] amount = new long[INITIAL_CAPACITY];
+    private long[] timestamp = new long[INITIAL_CAPACITY];
+    /**
+     * 最近一次写入该槽位的刷新周期序号，见 {@link TickCoordinator}
+     */
+    private long[] seq = new long[INITIAL_CAPACITY];
+
+    /**
+     * 上次取出以来各槽位变化的字段
+     */
+    private int[] pendingFields = new int[INITIAL_CAPACITY];
+    /**
+     * 最近一次 {@link #drainChanged()} 取出的各槽位变化字段，drained 标记其中非 0 的槽位
+     */
+    private int[] drainedFields = new int[INITIAL_CAPACITY];
+
+    private final BitSet changed = new BitSet();
+    private final BitSet drained = new BitSet();
+
+    public static long toFixed(double yuan) {
+        return Math.round(yuan * PRICE_SCALE);
+    }
+
+    public static double toYuan(long fixed) {
+        return (double) fixed / PRICE_SCALE;
+    }
+
+    /**
+     * 写入一只股票的快照，与已有值相同时不标记变化
+     */
+    @Override
+    public synchronized void accept(String marketCode, String stockCode, String name, double price, double preClose,
+                                    long volume, double amount, long timestamp) {
+        write(slotFor(marketCode, stockCode), name, price, preClose, volume, amount, timestamp);
+    }
+
+    /**
+     * 写入第 seq 个刷新周期的结果；该股票已有更新周期的数据时丢弃
+     *
+     * @return 是否写入，被丢弃时返回 false
+     */
+    public synchronized boolean accept(long seq, String marketCode, String stockCode, String name, double price,
+                                       double preClose, long volume, double amount, long timestamp) {
+        int slot = slotFor(marketCode, stockCode);
+        if (seq < this.seq[slot]) return false;
+        this.seq[slot] = seq;
+        write(slot, name, price, preClose, volume, amount, timestamp);
+        return true;
+    }
+
+    private void write(int slot, String name, double price, double preClose, long volume, double amount, long timestamp) {
+        long p = toFixed(price);
+        long pc = toFixed(preClose);
+        long amt = Math.round(amount);
+        int fields = 0;
+        if (name != null && !name.equals(this.name[slot])) fields |= NAME;
+        if (this.price[slot] != p) fields |= PRICE;
+        if (this.price[slot] != p || this.preClose[slot] != pc) fields |= CHANGE;
+        if (this.volume[slot] != volume || this.amount[slot] != amt) fields |= VOLUME;
+        if (fields == 0) return;
+
+        if ((fields & NAME) != 0) this.name[slot] = name;
+        this.price[slot] = p;
+        this.preClose[slot] = pc;
+        this.change[slot] = p - pc;
+        this.volume[slot] = volume;
+        this.amount[slot] = amt;
+        this.timestamp[slot] = timestamp;
+        pendingFields[slot] |= fields;
+        changed.set(slot);
+    }
+
+    public void put(Quote q) {
+        accept(q.marketCode(), q.stockCode(), q.name(), q.price(), q.preClose(), q.volume(), q.amount(), q.timestamp());
+    }
+
+    /**
+     * 取出上次调用以来有变化的股票，只为这些股票创建 {@link Quote}；
+     * 各自变化的字段在下次调用前可由 {@link #changedFields(int)} 读取
+     */
+    public synchronized List<Quote> drainChanged() {
+        for (int slot = drained.nextSetBit(0); slot >= 0; slot = drained.nextSetBit(slot + 1)) {
+            drainedFields[slot] = 0;
+        }
+        List<Quote> quotes = new ArrayList<>(changed.cardinality());
+        for (int slot = changed.nextSetBit(0); slot >= 0; slot = changed.nextSetBit(slot + 1)) {
+            quotes.add(quoteAt(slot));
+            drainedFields[slot] = pendingFields[slot];
+            pendingFields[slot] = 0;
+        }
+        drained.clear();
+        drained.or(changed);
+        changed.clear();
+        return quotes;
+    }
+
+    /**
+     * 最近一次 {@link #drainChanged()} 中该槽位变化的字段，未变化时为 0
+     */
+    public synchronized int changedFields(int slot) {
+        return drainedFields[slot];
+    }
+
+    /**
+     * @return 槽位，尚未写入过的股票返回 -1
+     */
+    public synchronized int slotOf(String key) {
+        Integer slot = slotByKey.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * 一只股票最近写入的行情，尚未写入过时返回 empty
+     */
+    public synchronized Optional<Quote> latest(String key) {
+        Integer slot = slotByKey.get(key);
+        return slot == null ? Optional.empty() : Optional.of(quoteAt(slot));
+    }
+
+    public synchronized Quote quoteAt(int slot) {
+        return new Quote(marketCode[slot], stockCode[slot], name[slot], toYuan(price[slot]), toYuan(preClose[slot]),
+                volume[slot], amount[slot], timestamp[slot]);
+    }
+
+    public synchronized String name(int slot) {
+        return name[slot];
+    }
+
+    public synchronized long priceFixed(int slot) {
+        return price[slot];
+    }
+
+    public synchronized long preCloseFixed(int slot) {
+        return preClose[slot];
+    }
+
+    public synchronized long changeFixed(int slot) {
+        return change[slot];
+    }
+
+    public synchronized long volume(int slot) {
+        return volume[slot];
+    }
+
+    public double price(int slot) {
+        return toYuan(priceFixed(slot));
+    }
+
+    public double change(int slot) {
+        return toYuan(changeFixed(slot));
+    }
+
+    /**
+     * 涨跌幅（比例，非百分数），昨收为 0 时返回 0
+     */
+    public synchronized double changeRate(int slot) {
+        return preClose[slot] == 0 ? 0 : (double) change[slot] / preClose[slot];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int slotFor(String marketCode, String stockCode) {
+        Map<String, Integer> byCode = slotByMarket.computeIfAbsent(marketCode, k -> new HashMap<>());
+        Integer slot = byCode.get(stockCode);
+        if (slot != null) return slot;
+
+        if (size == price.length) grow();
+        int s = size++;
+        byCode.put(stockCode, s);
+        slotByKey.put(marketCode + "_" + stockCode, s);
+        this.marketCode[s] = marketCode;
+        this.stockCode[s] = stockCode;
+        return s;
+    }
+
+    private void grow() {
+        int n = price.length * 2;
+        marketCode = Arrays.copyOf(marketCode, n);
+        stockCode = Arrays.copyOf(stockCode, n);
+        name = Arrays.copyOf(name, n);
+        price = Arrays.copyOf(price, n);
+        preClose = Arrays.copyOf(preClose, n);
+        change = Arrays.copyOf(change, n);
+        volume = Arrays.copyOf(volume, n);
+        amount = Arrays.copyOf(amount, n);
+        timestamp = Arrays.copyOf(timestamp, n);
+        seq = Arrays.copyOf(seq, n);
+        pendingFields = Arrays.copyOf(pendingFields, n);
+        drainedFields = Arrays.copyOf(drainedFields, n);
+    }
+}
@@ -0,0 +1,249 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.data.Stock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 行情订阅登记表
+ * <p>
+ * 表格、提醒规则、图表、助手等组件通过 {@link #subscribe} 订阅自己关心的股票，
+ * 刷新周期只拉取至少有一个订阅者的股票（{@link #activeStocks()}），
+ * 每只股票一次拉取的结果通过 {@link #publish} 分发给它的全部订阅者。
+ * publish 通常只包含有变化的股票，新加入的订阅者会在下一次 publish 时收到已有的最近行情。
+ * 股票按订阅者数量引用计数，最后一个订阅者释放后不再拉取；后加入的订阅者可通过
+ * {@link Subscription#latest()} 立即读取已有的最近行情。
+ * 股票的最后一个订阅者释放后又被重新订阅时（如在分组间移动），最近行情从构造时给出的 lastKnown 取回，
+ * 休市期间不会再有新行情，也不会因此丢失。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class QuoteSubscriptions {
+
+    private static final Logger LOG = LogManager.getLogger(QuoteSubscriptions.class);
+
+    /**
+     * 订阅者回调，在抓取线程上调用，需要更新界面时自行切换到 FX 线程
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param quotes 本周期内该订阅者所订阅股票的行情，每个周期最多调用一次
+         */
+        void onQuotes(List<Quote> quotes);
+    }
+
+    /**
+     * 每只股票的订阅者，key 为 {@link Stock#key()}
+     */
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    /**
+     * 有订阅者尚未收到过行情的股票
+     */
+    private final Set<Entry> unsent = new LinkedHashSet<>();
+    /**
+     * {@link #activeStocks()} 每次变化后递增
+     */
+    private volatile long version;
+    /**
+     * 新登记的股票从这里取得已有的最近行情
+     */
+    private final Function<String, Optional<Quote>> lastKnown;
+
+    public QuoteSubscriptions() {
+        this(key -> Optional.empty());
+    }
+
+    /**
+     * @param lastKnown 按 {@link Stock#key()} 取得已有的最近行情，通常为 {@link QuoteStore#latest}
+     */
+    public QuoteSubscriptions(Function<String, Optional<Quote>> lastKnown) {
+        this.lastKnown = lastKnown;
+    }
+
+    public synchronized Subscription subscribe(Collection<Stock> stocks, Listener listener) {
+        Subscription sub = new Subscription(listener);
+        for (Stock s : stocks) {
+            sub.add(s);
+        }
+        return sub;
+    }
+
+    /**
+     * 当前至少有一个订阅者的股票
+     */
+    public synchronized List<Stock> activeStocks() {
+        List<Stock> stocks = new ArrayList<>(entries.size());
+        for (Entry e : entries.values()) {
+            stocks.add(e.stock);
+        }
+        return stocks;
+    }
+
+    /**
+     * 订阅的股票集合的版本，不变时 {@link #activeStocks()} 的结果也不变
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 按订阅关系分发一批行情，每个订阅者只收到一次回调
+     */
+    public void publish(List<Quote> quotes) {
+        Map<Subscription, List<Quote>> bySubscriber = new HashMap<>();
+        synchronized (this) {
+            for (Quote q : quotes) {
+                Entry e = entries.get(q.key());
+                if (e == null) continue;
+                e.last = q;
+                for (Subscription sub : e.subscribers) {
+                    bySubscriber.computeIfAbsent(sub, k -> new ArrayList<>()).add(q);
+                }
+                e.fresh.clear();
+                unsent.remove(e);
+            }
+            // 本次没有变化、但新订阅者还没拿到的股票，补发最近一次行情
+            for (Entry e : unsent) {
+                if (e.last == null) continue;
+                for (Subscription sub : e.fresh) {
+                    bySubscriber.computeIfAbsent(sub, k -> new ArrayList<>()).add(e.last);
+                }
+                e.fresh.clear();
+            }
+            unsent.removeIf(e -> e.fresh.isEmpty());
+        }
+        bySubscriber.forEach((sub, list) -> {
+            try {
+                sub.listener.onQuotes(list);
+            } catch (Exception ex) {
+                LOG.error("quote listener error: {}", ex.getMessage(), ex);
+            }
+        });
+    }
+
+    private static class Entry {
+        private final Stock stock;
+        private final Set<Subscription> subscribers = new LinkedHashSet<>();
+        /**
+         * 尚未收到过行情的订阅者
+         */
+        private final Set<Subscription> fresh = new LinkedHashSet<>();
+        /**
+         * 最近一次分发的行情
+         */
+        private Quote last;
+
+        private Entry(Stock stock) {
+            this.stock = stock;
+        }
+    }
+
+    /**
+     * 一个订阅者持有的订阅，不再需要时调用 {@link #close()} 释放
+     */
+    public class Subscription implements AutoCloseable {
+
+        private final Listener listener;
+        private final Map<String, Stock> stocks = new LinkedHashMap<>();
+
+        private Subscription(Listener listener) {
+            this.listener = listener;
+        }
+
+        public void add(Stock stock) {
+            synchronized (QuoteSubscriptions.this) {
+                if (stocks.putIfAbsent(stock.key(), stock) == null) {
+                    Entry e = entries.computeIfAbsent(stock.key(), k -> {
+                        version++;
+                        Entry created = new Entry(stock);
+                        created.last = lastKnown.apply(k).orElse(null);
+                        return created;
+                    });
+                    e.subscribers.add(this);
+                    e.fresh.add(this);
+                    unsent.add(e);
+                }
+            }
+        }
+
+        public void remove(Stock stock) {
+            synchronized (QuoteSubscriptions.this) {
+                if (stocks.remove(stock.key()) != null) {
+                    release(stock.key());
+                }
+            }
+        }
+
+        /**
+         * 把订阅的股票替换为 stocks，只增删有变化的部分
+         */
+        public void retain(Collection<Stock> stocks) {
+            synchronized (QuoteSubscriptions.this) {
+                Map<String, Stock> wanted = new HashMap<>();
+                for (Stock s : stocks) {
+                    wanted.put(s.key(), s);
+                }
+                for (String key : new ArrayList<>(this.stocks.keySet())) {
+                    if (!wanted.containsKey(key)) {
+                        this.stocks.remove(key);
+                        release(key);
+                    }
+                }
+                for (Stock s : stocks) {
+                    add(s);
+                }
+            }
+        }
+
+        /**
+         * 所订阅股票最近一次的行情，尚未拉取到的股票不包含在内
+         */
+        public List<Quote> latest() {
+            synchronized (QuoteSubscriptions.this) {
+                List<Quote> quotes = new ArrayList<>(stocks.size());
+                for (String key : stocks.keySet()) {
+                    Entry e = entries.get(key);
+                    if (e != null && e.last != null) quotes.add(e.last);
+                }
+                return quotes;
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (QuoteSubscriptions.this) {
+                for (String key : stocks.keySet()) {
+                    release(key);
+                }
+                stocks.clear();
+            }
+        }
+
+        private void release(String key) {
+            Entry e = entries.get(key);
+            if (e == null) return;
+            e.subscribers.remove(this);
+            e.fresh.remove(this);
+            if (e.subscribers.isEmpty()) {
+                entries.remove(key);
+                unsent.remove(e);
+                version++;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.utils.AppConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按交易时段调度的行情刷新
+ * <p>
+ * 交易时段内按各时段的间隔轮询；上午、下午收盘后延迟一小段时间再刷新一次，取到最终成交价；
+ * 之后一直休眠到下一个交易时段。启动时无论是否在交易时段都先刷新一次，保证界面有数据。
+ * <p>
+ * 配置项（毫秒）：refresh.interval.callAuction（默认 3000）、refresh.interval.preOpen（默认 5000）、
+ * refresh.interval.continuous（默认 3000）、refresh.interval.closingAuction（默认 3000）、
+ * refresh.settleDelayMs（收盘后补刷延迟，默认 20000）。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class RefreshScheduler {
+
+    private static final Logger LOG = LogManager.getLogger(RefreshScheduler.class);
+
+    /**
+     * 单次休眠上限，超过后重新计算，避免系统休眠或改时间后错过开盘
+     */
+    private static final long MAX_SLEEP_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final TradingCalendar calendar;
+    private final Runnable task;
+    private final Map<TradingCalendar.Phase, Long> intervals = new EnumMap<>(TradingCalendar.Phase.class);
+    private final long settleDelay;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "fetch-thread");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * 下一次执行是否为收盘后的补刷
+     */
+    private boolean settleDue;
+
+    public RefreshScheduler(TradingCalendar calendar, Runnable task) {
+        this.calendar = calendar;
+        this.task = task;
+        intervals.put(TradingCalendar.Phase.CALL_AUCTION, (long) AppConfig.getInt("refresh.interval.callAuction", 3000));
+        intervals.put(TradingCalendar.Phase.PRE_OPEN, (long) AppConfig.getInt("refresh.interval.preOpen", 5000));
+        intervals.put(TradingCalendar.Phase.MORNING, (long) AppConfig.getInt("refresh.interval.continuous", 3000));
+        intervals.put(TradingCalendar.Phase.AFTERNOON, intervals.get(TradingCalendar.Phase.MORNING));
+        intervals.put(TradingCalendar.Phase.CLOSING_AUCTION, (long) AppConfig.getInt("refresh.interval.closingAuction", 3000));
+        this.settleDelay = AppConfig.getInt("refresh.settleDelayMs", 20000);
+    }
+
+    public void start() {
+        scheduler.execute(() -> tick(true));
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void tick(boolean force) {
+        LocalDateTime now = LocalDateTime.now(TradingCalendar.MARKET_ZONE);
+        TradingCalendar.Phase phase = calendar.phaseAt(now);
+        if (force || settleDue || phase.isActive()) {
+            runTask();
+        }
+        settleDue = false;
+
+        long delay = nextDelay(now, phase);
+        scheduler.schedule(() -> tick(false), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void runTask() {
+        try {
+            task.run();
+        } catch (Exception e) {
+            LOG.error("refresh error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 计算到下一次执行的间隔；本段交易在下一个间隔内结束时，改为在收盘后补刷一次
+     */
+    private long nextDelay(LocalDateTime now, TradingCalendar.Phase phase) {
+        if (phase.isActive()) {
+            long interval = Math.max(intervals.get(phase), 500);
+            LocalDateTime end = calendar.sessionEnd(now);
+            if (end != null && !now.plusNanos(interval * 1_000_000).isBefore(end)) {
+                settleDue = true;
+                return Duration.between(now, end).toMillis() + settleDelay;
+            }
+            return interval;
+        }
+        long untilActive = Duration.between(now, calendar.nextActive(now)).toMillis();
+        return Math.max(Math.min(untilActive, MAX_SLEEP_MILLIS), 0);
+    }
+}
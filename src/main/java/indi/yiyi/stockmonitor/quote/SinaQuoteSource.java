@@ -0,0 +1,82 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.enums.StockerQuoteProvider;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+
+/**
+ * 新浪行情源
+ * <pre>
+ * var hq_str_sh600519="贵州茅台,今开,昨收,现价,最高,最低,买一,卖一,成交量(股),成交额(元),...,日期,时间,00,";
+ * </pre>
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class SinaQuoteSource extends DelimitedQuoteSource {
+
+    public static final String NAME = "Sina";
+
+    private static final int F_NAME = 0;
+    private static final int F_PRE_CLOSE = 2;
+    private static final int F_PRICE = 3;
+    private static final int F_VOLUME = 8;
+    private static final int F_AMOUNT = 9;
+    private static final int F_DATE = 30;
+    private static final int F_TIME = 31;
+
+    public SinaQuoteSource(HttpClient http) {
+        super(http, Endpoints.resolve(StockerQuoteProvider.SINA.getHost()));
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    byte delimiter() {
+        return ',';
+    }
+
+    @Override
+    HttpRequest.Builder decorate(HttpRequest.Builder builder) {
+        // 新浪接口要求携带 Referer
+        return builder.header("Referer", "https://finance.sina.com.cn");
+    }
+
+    @Override
+    void emit(byte[] buf, int symbolStart, int symbolEnd, int[] starts, int[] ends, int count, QuoteSink out) {
+        if (count <= F_TIME) return;
+        double price = number(buf, starts, ends, F_PRICE);
+        // 停牌或开盘前现价为 0
+        if (!(price > 0)) return;
+
+        long timestamp = 0;
+        int d = starts[F_DATE];
+        int t = starts[F_TIME];
+        // yyyy-MM-dd HH:mm:ss
+        if (ends[F_DATE] - d == 10 && ends[F_TIME] - t == 8) {
+            timestamp = epochSecond(
+                    DecimalParser.parseFixed(buf, d, 4),
+                    DecimalParser.parseFixed(buf, d + 5, 2),
+                    DecimalParser.parseFixed(buf, d + 8, 2),
+                    DecimalParser.parseFixed(buf, t, 2),
+                    DecimalParser.parseFixed(buf, t + 3, 2),
+                    DecimalParser.parseFixed(buf, t + 6, 2));
+        }
+        out.accept(
+                marketOf(buf, symbolStart),
+                stockCodeOf(buf, symbolStart, symbolEnd),
+                text(buf, starts, ends, F_NAME),
+                price,
+                number(buf, starts, ends, F_PRE_CLOSE),
+                // 新浪成交量单位为股，统一换算为手
+                integer(buf, starts, ends, F_VOLUME) / 100,
+                number(buf, starts, ends, F_AMOUNT),
+                timestamp
+        );
+    }
+}
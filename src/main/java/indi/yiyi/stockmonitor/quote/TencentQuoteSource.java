@@ -0,0 +1,71 @@
+package indi.yiyi.stockmonitor.quote;
+
+import indi.yiyi.stockmonitor.enums.StockerQuoteProvider;
+
+import java.net.http.HttpClient;
+
+/**
+ * 腾讯行情源
+ * <pre>
+ * v_sh600519="1~贵州茅台~600519~现价~昨收~今开~成交量(手)~...~yyyyMMddHHmmss~...~成交量(手)~成交额(万元)~...";
+ * </pre>
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class TencentQuoteSource extends DelimitedQuoteSource {
+
+    public static final String NAME = "Tencent";
+
+    private static final int F_NAME = 1;
+    private static final int F_PRICE = 3;
+    private static final int F_PRE_CLOSE = 4;
+    private static final int F_TIME = 30;
+    private static final int F_VOLUME = 36;
+    private static final int F_AMOUNT = 37;
+
+    public TencentQuoteSource(HttpClient http) {
+        super(http, Endpoints.resolve(StockerQuoteProvider.TENCENT.getHost()));
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    byte delimiter() {
+        return '~';
+    }
+
+    @Override
+    void emit(byte[] buf, int symbolStart, int symbolEnd, int[] starts, int[] ends, int count, QuoteSink out) {
+        if (count <= F_AMOUNT) return;
+        double price = number(buf, starts, ends, F_PRICE);
+        if (!(price > 0)) return;
+
+        long timestamp = 0;
+        int t = starts[F_TIME];
+        if (ends[F_TIME] - t == 14) {
+            timestamp = epochSecond(
+                    DecimalParser.parseFixed(buf, t, 4),
+                    DecimalParser.parseFixed(buf, t + 4, 2),
+                    DecimalParser.parseFixed(buf, t + 6, 2),
+                    DecimalParser.parseFixed(buf, t + 8, 2),
+                    DecimalParser.parseFixed(buf, t + 10, 2),
+                    DecimalParser.parseFixed(buf, t + 12, 2));
+        }
+        out.accept(
+                marketOf(buf, symbolStart),
+                stockCodeOf(buf, symbolStart, symbolEnd),
+                text(buf, starts, ends, F_NAME),
+                price,
+                number(buf, starts, ends, F_PRE_CLOSE),
+                integer(buf, starts, ends, F_VOLUME),
+                // 腾讯成交额单位为万元
+                number(buf, starts, ends, F_AMOUNT) * 10000,
+                timestamp
+        );
+    }
+}
@@ -0,0 +1,144 @@
+package indi.yiyi.stockmonitor.quote;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 刷新周期协调器，保证同一组股票同一时间只有一个刷新周期在执行
+ * <p>
+ * 每个周期分配单调递增的序号。定时刷新到来时若上一周期仍未结束，本次跳过并计入 overrun；
+ * 按需刷新（{@link #requestNow()}）遇到进行中的周期时不另起请求，合并到该周期结束后紧接着的下一周期，计入 merged。
+ * 周期按截止时间结束后，仍可能有迟到的响应写入行情存储，{@link #sink} 按序号丢弃比已显示数据更旧的结果，计入 dropped。
+ * 周期总是在构造时给定的 executor 上执行，从 FX 线程发起的按需刷新不会在 FX 线程上准备请求。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class TickCoordinator {
+
+    private static final Logger LOG = LogManager.getLogger(TickCoordinator.class);
+
+    /**
+     * 一个刷新周期，返回的 future 完成即视为周期结束
+     */
+    @FunctionalInterface
+    public interface Cycle {
+        CompletableFuture<?> run(long seq);
+    }
+
+    private final Cycle cycle;
+    private final Executor executor;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overrun = new LongAdder();
+
+    /**
+     * @param executor 执行周期的线程，通常为 {@link FetchEngine#scheduler()}
+     */
+    public TickCoordinator(Cycle cycle, Executor executor) {
+        this.cycle = cycle;
+        this.executor = executor;
+    }
+
+    /**
+     * 定时刷新，上一周期未结束时跳过
+     */
+    public void tick() {
+        if (!start()) {
+            overrun.increment();
+        }
+    }
+
+    /**
+     * 按需刷新，上一周期未结束时合并到下一周期
+     */
+    public void requestNow() {
+        // 先登记再尝试启动：进行中的周期在结束时一定能看到登记，请求不会遗漏
+        pending.set(true);
+        if (!start()) {
+            merged.increment();
+        }
+    }
+
+    /**
+     * 绑定到某个周期序号的写入方，比存储中已有数据旧的结果被丢弃
+     */
+    public QuoteSink sink(long seq, QuoteStore store) {
+        return (marketCode, stockCode, name, price, preClose, volume, amount, timestamp) -> {
+            if (!store.accept(seq, marketCode, stockCode, name, price, preClose, volume, amount, timestamp)) {
+                dropped.increment();
+            }
+        };
+    }
+
+    /**
+     * 最近一次分配的周期序号
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    public long getMerged() {
+        return merged.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getOverrun() {
+        return overrun.sum();
+    }
+
+    private boolean start() {
+        if (!inFlight.compareAndSet(false, true)) return false;
+        pending.set(false);
+
+        long seq = sequence.incrementAndGet();
+        try {
+            executor.execute(() -> run(seq));
+        } catch (RejectedExecutionException e) {
+            // 退出时执行器已关闭
+            inFlight.set(false);
+        }
+        return true;
+    }
+
+    private void run(long seq) {
+        CompletableFuture<?> f;
+        try {
+            f = cycle.run(seq);
+        } catch (Exception e) {
+            LOG.error("tick {} error: {}", seq, e.getMessage());
+            f = null;
+        }
+        if (f == null) {
+            finish();
+        } else {
+            f.whenComplete((r, e) -> {
+                if (e != null) LOG.error("tick {} error: {}", seq, e.getMessage());
+                finish();
+            });
+        }
+    }
+
+    private void finish() {
+        inFlight.set(false);
+        if (pending.get()) {
+            start();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package indi.yiyi.stockmonitor.quote;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A 股交易日历与交易时段
+ * <p>
+ * 周六、周日及休市日不交易。休市日从工作目录下的 config/holidays.txt 读取，
+ * 每行一个 yyyy-MM-dd 日期，# 之后为注释；文件不存在时只按周末判断。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class TradingCalendar {
+
+    private static final Logger LOG = LogManager.getLogger(TradingCalendar.class);
+
+    public static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Shanghai");
+
+    public static final String HOLIDAYS_FILE = "config/holidays.txt";
+
+    private static final LocalTime CALL_AUCTION_START = LocalTime.of(9, 15);
+    private static final LocalTime PRE_OPEN_START = LocalTime.of(9, 25);
+    private static final LocalTime MORNING_START = LocalTime.of(9, 30);
+    private static final LocalTime MORNING_END = LocalTime.of(11, 30);
+    private static final LocalTime AFTERNOON_START = LocalTime.of(13, 0);
+    private static final LocalTime CLOSING_AUCTION_START = LocalTime.of(14, 57);
+    private static final LocalTime AFTERNOON_END = LocalTime.of(15, 0);
+
+    /**
+     * 交易时段，active 表示该时段内行情会变化、需要轮询
+     */
+    public enum Phase {
+        /**
+         * 非交易日，或交易日开盘前、收盘后
+         */
+        CLOSED(false),
+        /**
+         * 开盘集合竞价 9:15–9:25
+         */
+        CALL_AUCTION(true),
+        /**
+         * 竞价结束到连续竞价开始 9:25–9:30，价格已定
+         */
+        PRE_OPEN(true),
+        /**
+         * 上午连续竞价 9:30–11:30
+         */
+        MORNING(true),
+        /**
+         * 午间休市 11:30–13:00
+         */
+        LUNCH(false),
+        /**
+         * 下午连续竞价 13:00–14:57
+         */
+        AFTERNOON(true),
+        /**
+         * 收盘集合竞价 14:57–15:00
+         */
+        CLOSING_AUCTION(true);
+
+        private final boolean active;
+
+        Phase(boolean active) {
+            this.active = active;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    private final Set<LocalDate> holidays;
+
+    public TradingCalendar(Set<LocalDate> holidays) {
+        this.holidays = Set.copyOf(holidays);
+    }
+
+    /**
+     * 从 {@link #HOLIDAYS_FILE} 加载日历
+     */
+    public static TradingCalendar load() {
+        Path path = Paths.get(System.getProperty("user.dir")).resolve(HOLIDAYS_FILE);
+        if (!Files.exists(path)) {
+            LOG.info("holiday file not found, weekends only: {}", path.toAbsolutePath());
+            return new TradingCalendar(Set.of());
+        }
+        try {
+            return new TradingCalendar(parseHolidays(Files.readAllLines(path, StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            LOG.warn("holiday file read error: {}", e.getMessage());
+            return new TradingCalendar(Set.of());
+        }
+    }
+
+    static Set<LocalDate> parseHolidays(List<String> lines) {
+        Set<LocalDate> dates = new HashSet<>();
+        for (String line : lines) {
+            int hash = line.indexOf('#');
+            String s = (hash >= 0 ? line.substring(0, hash) : line).trim();
+            if (s.isEmpty()) continue;
+            try {
+                dates.add(LocalDate.parse(s));
+            } catch (DateTimeParseException e) {
+                LOG.warn("invalid holiday entry: {}", s);
+            }
+        }
+        return dates;
+    }
+
+    public boolean isTradingDay(LocalDate date) {
+        DayOfWeek dow = date.getDayOfWeek();
+        return dow != DayOfWeek.SATURDAY && dow != DayOfWeek.SUNDAY && !holidays.contains(date);
+    }
+
+    public Phase phaseAt(LocalDateTime time) {
+        if (!isTradingDay(time.toLocalDate())) return Phase.CLOSED;
+        LocalTime t = time.toLocalTime();
+        if (t.isBefore(CALL_AUCTION_START)) return Phase.CLOSED;
+        if (t.isBefore(PRE_OPEN_START)) return Phase.CALL_AUCTION;
+        if (t.isBefore(MORNING_START)) return Phase.PRE_OPEN;
+        if (t.isBefore(MORNING_END)) return Phase.MORNING;
+        if (t.isBefore(AFTERNOON_START)) return Phase.LUNCH;
+        if (t.isBefore(CLOSING_AUCTION_START)) return Phase.AFTERNOON;
+        if (t.isBefore(AFTERNOON_END)) return Phase.CLOSING_AUCTION;
+        return Phase.CLOSED;
+    }
+
+    /**
+     * 当前所在连续交易段（上午或下午）的结束时刻；集合竞价等其他时段返回 null
+     */
+    public LocalDateTime sessionEnd(LocalDateTime time) {
+        return switch (phaseAt(time)) {
+            case MORNING -> time.toLocalDate().atTime(MORNING_END);
+            case AFTERNOON, CLOSING_AUCTION -> time.toLocalDate().atTime(AFTERNOON_END);
+            default -> null;
+        };
+    }
+
+    /**
+     * 下一个需要轮询的时刻：午休返回 13:00，收盘后返回下一交易日 9:15；已处于交易时段时返回 time 本身
+     */
+    public LocalDateTime nextActive(LocalDateTime time) {
+        Phase phase = phaseAt(time);
+        if (phase.isActive()) return time;
+        if (phase == Phase.LUNCH) return time.toLocalDate().atTime(AFTERNOON_START);
+
+        LocalDate date = time.toLocalDate();
+        if (!isTradingDay(date) || !time.toLocalTime().isBefore(CALL_AUCTION_START)) {
+            date = date.plusDays(1);
+        }
+        // 休市日配置覆盖了整年时不再继续查找，避免死循环
+        for (int i = 0; i < 366 && !isTradingDay(date); i++) {
+            date = date.plusDays(1);
+        }
+        return date.atTime(CALL_AUCTION_START);
+    }
+}
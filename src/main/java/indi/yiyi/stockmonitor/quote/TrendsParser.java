@@ -0,0 +1,171 @@
+package indi.yiyi.stockmonitor.quote;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.data.Quote;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * 东方财富 trends2 响应的流式解析
+ * <p>
+ * 基于 Jackson {@link JsonParser} 直接读取响应字节流，只关心 data 下的 name、preClose、trends 三个字段，
+ * 其余字段整体跳过，不构建 JsonNode 树。每条分钟线形如
+ * {@code "2025-08-20 09:31,open,close,high,low,volume,amount,avg"}，
+ * 数值在解析器的字符缓冲区上原地解析，不产生子串。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public final class TrendsParser {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * 分钟线字段：时间、开、收、高、低、量、额、均价
+     */
+    private static final int FIELD_COUNT = 8;
+
+    private TrendsParser() {
+    }
+
+    /**
+     * 只解析名称、昨收与最后一根分钟线的收盘价
+     */
+    public static Optional<Quote> parseLast(InputStream in, String marketCode, String stockCode) throws IOException {
+        try (JsonParser p = FACTORY.createParser(in)) {
+            if (!moveToData(p)) return Optional.empty();
+
+            String name = "";
+            double preClose = 0;
+            // 复用缓冲区保存当前最后一条分钟线
+            char[] last = new char[64];
+            int lastLen = -1;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "name" -> name = p.getValueAsString("");
+                    case "preClose" -> preClose = p.getValueAsDouble();
+                    case "trends" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            p.skipChildren();
+                            break;
+                        }
+                        while (p.nextToken() == JsonToken.VALUE_STRING) {
+                            int len = p.getTextLength();
+                            if (len > last.length) last = new char[len * 2];
+                            System.arraycopy(p.getTextCharacters(), p.getTextOffset(), last, 0, len);
+                            lastLen = len;
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+            if (lastLen < 0) return Optional.empty();
+
+            int[] bounds = new int[FIELD_COUNT * 2];
+            if (split(last, 0, lastLen, bounds) < 3) return Optional.empty();
+            double price = DecimalParser.parseDouble(last, bounds[4], bounds[5]);
+            if (Double.isNaN(price)) return Optional.empty();
+            return Optional.of(new Quote(marketCode, stockCode, name, price, preClose, 0, 0, 0));
+        }
+    }
+
+    /**
+     * 解析完整的当日分时数据
+     */
+    public static Optional<EastMoneyQuoteSource.Trends> parseSeries(InputStream in, String key) throws IOException {
+        try (JsonParser p = FACTORY.createParser(in)) {
+            if (!moveToData(p)) return Optional.empty();
+
+            String name = "";
+            double preClose = 0;
+            IntradaySeries series = null;
+            int[] bounds = new int[FIELD_COUNT * 2];
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "name" -> name = p.getValueAsString("");
+                    case "preClose" -> preClose = p.getValueAsDouble();
+                    case "trends" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            p.skipChildren();
+                            break;
+                        }
+                        while (p.nextToken() == JsonToken.VALUE_STRING) {
+                            char[] buf = p.getTextCharacters();
+                            int off = p.getTextOffset();
+                            if (split(buf, off, off + p.getTextLength(), bounds) < 7) continue;
+                            // yyyy-MM-dd HH:mm
+                            int t = bounds[0];
+                            if (bounds[1] - t != 16) continue;
+                            if (series == null) {
+                                series = new IntradaySeries(key, LocalDate.of(
+                                        DecimalParser.parseFixed(buf, t, 4),
+                                        DecimalParser.parseFixed(buf, t + 5, 2),
+                                        DecimalParser.parseFixed(buf, t + 8, 2)));
+                            }
+                            series.append(DecimalParser.parseFixed(buf, t + 11, 2) * 60 + DecimalParser.parseFixed(buf, t + 14, 2),
+                                    DecimalParser.parseDouble(buf, bounds[2], bounds[3]),
+                                    DecimalParser.parseDouble(buf, bounds[4], bounds[5]),
+                                    DecimalParser.parseDouble(buf, bounds[6], bounds[7]),
+                                    DecimalParser.parseDouble(buf, bounds[8], bounds[9]),
+                                    DecimalParser.parseLong(buf, bounds[10], bounds[11]),
+                                    DecimalParser.parseDouble(buf, bounds[12], bounds[13]));
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+            if (series == null) return Optional.empty();
+            return Optional.of(new EastMoneyQuoteSource.Trends(name, preClose, series));
+        }
+    }
+
+    /**
+     * 定位到 data 对象内部；data 缺失或为 null 时返回 false
+     */
+    private static boolean moveToData(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) return false;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("data".equals(field)) {
+                return value == JsonToken.START_OBJECT;
+            }
+            p.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * 按逗号切分 [from, to)，字段 i 的区间写入 bounds[2i], bounds[2i+1]，返回字段数
+     */
+    private static int split(char[] buf, int from, int to, int[] bounds) {
+        int count = 0;
+        int start = from;
+        int max = bounds.length / 2;
+        for (int i = from; i < to && count < max; i++) {
+            if (buf[i] == ',') {
+                bounds[count * 2] = start;
+                bounds[count * 2 + 1] = i;
+                count++;
+                start = i + 1;
+            }
+        }
+        if (count < max) {
+            bounds[count * 2] = start;
+            bounds[count * 2 + 1] = to;
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,233 @@
+package indi.yiyi.stockmonitor.quote;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import indi.yiyi.stockmonitor.metrics.QuoteMetrics;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * 东方财富批量接口（ulist）响应的增量解析
+ * <p>
+ * 基于 Jackson 非阻塞解析器，响应体的字节块到达一块就解析一块，不等待完整响应、不构建 JsonNode 树，
+ * 也不阻塞任何线程。只读取 data.diff 下每个对象的 f2、f5、f6、f12、f13、f14、f18、f124 字段，
+ * 每个对象解析完成后写入 {@link QuoteSink}。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class UlistParser {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final int MAX_DEPTH = 16;
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+
+    private final QuoteSink sink;
+    private int count;
+
+    /**
+     * 每一层最近的字段名，names[d] 为深度 d 上的字段
+     */
+    private final String[] names = new String[MAX_DEPTH];
+    private int depth;
+    /**
+     * diff 容器所在深度，未进入时为 -1
+     */
+    private int diffDepth = -1;
+
+    // 当前 diff 条目的字段
+    private String marketCode;
+    private String stockCode;
+    private String name;
+    private double price;
+    private double preClose;
+    private long volume;
+    private double amount;
+    private long timestamp;
+
+    public UlistParser(QuoteSink sink) {
+        this.sink = sink;
+        try {
+            this.parser = FACTORY.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * 作为 HttpClient 的响应体订阅者使用，响应体为写入 sink 的股票数；非 200 响应直接丢弃响应体
+     */
+    public static HttpResponse.BodyHandler<Integer> bodyHandler(QuoteSink sink) {
+        return info -> info.statusCode() == 200
+                ? new Subscriber(sink)
+                : HttpResponse.BodySubscribers.replacing(0);
+    }
+
+    /**
+     * 喂入一块数据并解析其中完整的 token
+     */
+    public void feed(ByteBuffer buf) throws IOException {
+        feeder.feedInput(buf);
+        drain();
+    }
+
+    /**
+     * 标记输入结束
+     *
+     * @return 写入 sink 的股票数
+     */
+    public int finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        parser.close();
+        return count;
+    }
+
+    private void drain() throws IOException {
+        JsonToken t;
+        while ((t = parser.nextToken()) != null && t != JsonToken.NOT_AVAILABLE) {
+            onToken(t);
+        }
+    }
+
+    private void onToken(JsonToken t) throws IOException {
+        switch (t) {
+            case START_OBJECT, START_ARRAY -> {
+                depth++;
+                if (diffDepth < 0 && depth == 3 && "diff".equals(name(2)) && "data".equals(name(1))) {
+                    diffDepth = depth;
+                } else if (diffDepth > 0 && depth == diffDepth + 1 && t == JsonToken.START_OBJECT) {
+                    resetItem();
+                }
+            }
+            case END_OBJECT, END_ARRAY -> {
+                if (diffDepth > 0 && depth == diffDepth + 1 && t == JsonToken.END_OBJECT) {
+                    emitItem();
+                } else if (depth == diffDepth) {
+                    diffDepth = -1;
+                }
+                depth--;
+            }
+            case FIELD_NAME -> {
+                if (depth < MAX_DEPTH) names[depth] = parser.currentName();
+            }
+            default -> {
+                if (diffDepth > 0 && depth == diffDepth + 1) {
+                    onItemValue(name(depth), t);
+                }
+            }
+        }
+    }
+
+    private void onItemValue(String field, JsonToken t) throws IOException {
+        boolean number = t == JsonToken.VALUE_NUMBER_INT || t == JsonToken.VALUE_NUMBER_FLOAT;
+        switch (field) {
+            // 停牌或无成交时价格字段为 "-"
+            case "f2" -> price = number ? parser.getDoubleValue() : Double.NaN;
+            case "f5" -> volume = number ? parser.getLongValue() : 0;
+            case "f6" -> amount = number ? parser.getDoubleValue() : 0;
+            case "f12" -> stockCode = parser.getText();
+            case "f13" -> marketCode = parser.getText();
+            case "f14" -> name = parser.getText();
+            case "f18" -> preClose = number ? parser.getDoubleValue() : 0;
+            case "f124" -> timestamp = number ? parser.getLongValue() : 0;
+            default -> {
+            }
+        }
+    }
+
+    private void resetItem() {
+        marketCode = null;
+        stockCode = null;
+        name = "";
+        price = Double.NaN;
+        preClose = 0;
+        volume = 0;
+        amount = 0;
+        timestamp = 0;
+    }
+
+    private void emitItem() {
+        if (Double.isNaN(price) || marketCode == null || stockCode == null) return;
+        sink.accept(marketCode, stockCode, name, price, preClose, volume, amount, timestamp);
+        count++;
+    }
+
+    private String name(int d) {
+        return d < MAX_DEPTH ? names[d] : null;
+    }
+
+    /**
+     * 把响应体字节块逐块交给解析器的订阅者
+     */
+    private static class Subscriber implements HttpResponse.BodySubscriber<Integer> {
+
+        private final UlistParser parser;
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        /**
+         * 解析器自身累计耗时，不含等待数据到达的时间
+         */
+        private long parseNanos;
+
+        Subscriber(QuoteSink sink) {
+            this.parser = new UlistParser(sink);
+        }
+
+        @Override
+        public CompletionStage<Integer> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                long start = System.nanoTime();
+                for (ByteBuffer buf : buffers) {
+                    parser.feed(buf);
+                }
+                parseNanos += System.nanoTime() - start;
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                long start = System.nanoTime();
+                int count = parser.finish();
+                QuoteMetrics.get().record(QuoteMetrics.Step.PARSE, parseNanos + System.nanoTime() - start);
+                result.complete(count);
+            } catch (IOException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
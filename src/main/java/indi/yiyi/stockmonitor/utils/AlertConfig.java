@@ -0,0 +1,152 @@
+package indi.yiyi.stockmonitor.utils;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import indi.yiyi.stockmonitor.alert.AlertRule;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 提醒规则持久化配置，与 groups.json 保存在同一目录
+ * <pre>
+ * alerts.json 示例:
+ * {
+ *   "nextId": 3,
+ *   "rules": [
+ *     {"id": 1, "marketCode": "1", "stockCode": "600519", "type": "ABOVE", "value": 1500.0, "debounceSeconds": 60},
+ *     {"id": 2, "marketCode": "0", "stockCode": "000001", "type": "MOVE_FROM_OPEN", "value": 3.0, "debounceSeconds": 60}
+ *   ]
+ * }
+ * </pre>
+ * 规则变化后通知 {@link #addListener} 登记的监听者（在修改规则的线程上调用）。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class AlertConfig {
+
+    private static final Logger LOG = LogManager.getLogger(AlertConfig.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private static final Path CONFIG_FILE = GroupConfig.DATA_DIR.resolve("alerts.json");
+
+    public static class Root {
+        private long nextId = 1;
+        private List<AlertRule> rules = new ArrayList<>();
+
+        public long getNextId() {
+            return nextId;
+        }
+
+        public void setNextId(long nextId) {
+            this.nextId = nextId;
+        }
+
+        public List<AlertRule> getRules() {
+            return rules;
+        }
+
+        public void setRules(List<AlertRule> rules) {
+            this.rules = rules;
+        }
+    }
+
+    // ==== 内部缓存 ====
+    private static Root rootCache;
+
+    private static final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    static {
+        load();
+    }
+
+    // ==== API ====
+
+    /**
+     * 读取配置文件，不存在时为空
+     */
+    public static synchronized void load() {
+        try {
+            rootCache = Files.exists(CONFIG_FILE) ? mapper.readValue(CONFIG_FILE.toFile(), Root.class) : new Root();
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+            rootCache = new Root();
+        }
+    }
+
+    /**
+     * 保存到文件
+     */
+    public static synchronized void save() {
+        try {
+            Files.createDirectories(GroupConfig.DATA_DIR);
+            mapper.writeValue(CONFIG_FILE.toFile(), rootCache);
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取全部规则
+     */
+    public static synchronized List<AlertRule> getRules() {
+        return new ArrayList<>(rootCache.getRules());
+    }
+
+    /**
+     * 获取某只股票的规则
+     */
+    public static synchronized List<AlertRule> getRulesOf(String marketCode, String stockCode) {
+        return rootCache.getRules().stream()
+                .filter(r -> r.marketCode().equals(marketCode) && r.stockCode().equals(stockCode))
+                .toList();
+    }
+
+    /**
+     * 添加规则并分配编号
+     */
+    public static AlertRule addRule(String marketCode, String stockCode, AlertRule.Type type, double value,
+                                    int debounceSeconds) {
+        AlertRule rule;
+        synchronized (AlertConfig.class) {
+            rule = new AlertRule(rootCache.nextId++, marketCode, stockCode, type, value, debounceSeconds);
+            rootCache.getRules().add(rule);
+            save();
+        }
+        fireChanged();
+        return rule;
+    }
+
+    /**
+     * 删除规则
+     */
+    public static boolean removeRule(long id) {
+        boolean removed;
+        synchronized (AlertConfig.class) {
+            removed = rootCache.getRules().removeIf(r -> r.id() == id);
+            if (removed) save();
+        }
+        if (removed) fireChanged();
+        return removed;
+    }
+
+    public static void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    private static void fireChanged() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
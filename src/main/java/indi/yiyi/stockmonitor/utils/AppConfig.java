@@ -20,4 +20,26 @@ public class AppConfig {
         load();
         return configManager;
     }
+
+    /**
+     * 读取字符串配置，同名的 JVM 系统属性（-Dkey=value）优先，便于基准测试、压测时临时覆盖
+     */
+    public static String get(String key, String defaultValue) {
+        String v = System.getProperty(key);
+        if (v != null) return v;
+        return getConfigManager().get(key, defaultValue);
+    }
+
+    /**
+     * 读取整数配置，同样以系统属性优先，缺失或格式错误时返回默认值
+     */
+    public static int getInt(String key, int defaultValue) {
+        String v = get(key, null);
+        if (v == null) return defaultValue;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package indi.yiyi.stockmonitor.utils;
+
+/**
+ * 定点小数格式化，直接写入调用方提供的 char[]，不创建 Formatter 与中间字符串
+ * <p>
+ * 输出等价于 {@code String.format("%.Nf", value)}（四舍五入，无千分位），
+ * 区别在于舍入后为 0 的负数输出 0 而不是 -0，NaN 与无穷输出 "--"。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public final class FixedDecimalFormatter {
+
+    /**
+     * 支持的最大小数位数
+     */
+    public static final int MAX_SCALE = 6;
+
+    /**
+     * 足以容纳任意输出（含符号、19 位整数、小数点、小数位和后缀）的缓冲区长度
+     */
+    public static final int BUFFER_SIZE = 32;
+
+    private static final long[] POW10 = {1, 10, 100, 1000, 10000, 100000, 1000000};
+
+    private FixedDecimalFormatter() {
+    }
+
+    /**
+     * 将 value 按 scale 位小数写入 buf，从下标 0 开始
+     *
+     * @param suffix 追加在末尾的字符，为 0 时不追加
+     * @return 写入的字符数
+     */
+    public static int format(double value, int scale, char suffix, char[] buf) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("scale: " + scale);
+        }
+        int pos = 0;
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            buf[pos++] = '-';
+            buf[pos++] = '-';
+        } else {
+            long scaled = roundHalfUp(Math.abs(value) * POW10[scale]);
+            if (value < 0 && scaled != 0) buf[pos++] = '-';
+            pos = formatScaled(scaled, scale, buf, pos);
+        }
+        if (suffix != 0) buf[pos++] = suffix;
+        return pos;
+    }
+
+    /**
+     * 按 scale 位小数生成字符串，供不在热路径上的调用方使用
+     */
+    public static String toString(double value, int scale, char suffix) {
+        char[] buf = new char[BUFFER_SIZE];
+        return new String(buf, 0, format(value, scale, suffix, buf));
+    }
+
+    /**
+     * 四舍五入到整数；乘以 10^scale 后本应为 .5 的值（如 1064.485 * 100）常落在 .5 之下几个 ulp，
+     * 这里按 .5 处理，与 String.format 基于最短十进制表示的舍入保持一致
+     */
+    private static long roundHalfUp(double x) {
+        double floor = Math.floor(x);
+        double frac = x - floor;
+        if (frac >= 0.5 || 0.5 - frac <= 4 * Math.ulp(x)) {
+            return (long) floor + 1;
+        }
+        return (long) floor;
+    }
+
+    /**
+     * 写入非负定点数 scaled / 10^scale
+     */
+    private static int formatScaled(long scaled, int scale, char[] buf, int pos) {
+        long intPart = scaled / POW10[scale];
+        long fracPart = scaled % POW10[scale];
+
+        // 先数出整数位数，再从个位向高位倒序写入
+        int digits = 1;
+        for (long t = intPart; t >= 10; t /= 10) digits++;
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + intPart % 10);
+            intPart /= 10;
+        }
+        pos += digits;
+
+        if (scale > 0) {
+            buf[pos++] = '.';
+            for (int i = pos + scale - 1; i >= pos; i--) {
+                buf[i] = (char) ('0' + fracPart % 10);
+                fracPart /= 10;
+            }
+            pos += scale;
+        }
+        return pos;
+    }
+}
@@ -2,7 +2,10 @@ package indi.yiyi.stockmonitor.utils;
 
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import indi.yiyi.stockmonitor.data.Stock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,8 +14,17 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * 分组持久化配置管理
@@ -30,6 +42,10 @@ import java.util.List;
  *   ]
  * }
  * </pre>
+ * 内存中按分组名索引各分组，每个分组按股票键保存其股票（保持加入顺序），
+ * 另有股票到所在分组的反向索引，查询和增删股票都是 O(1)。
+ * 每次修改后另外发布一份不可修改的 {@link Snapshot}，抓取线程等读者无需加锁即可读取。
+ * 多处修改通过 {@link #edit} 在一个事务中完成，只写一次日志、发布一次快照。
  *
  * @author Nonoas
  * @date 2025/8/27
@@ -42,7 +58,10 @@ public class GroupConfig {
     private static final ObjectMapper mapper = new ObjectMapper()
             .setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
-    private static final Path DATA_DIR = Path.of(System.getProperty("user.home"), ".stockMonitor");
+    /**
+     * 用户数据目录，分组配置、行情记录等都保存在这里
+     */
+    public static final Path DATA_DIR = Path.of(System.getProperty("user.home"), ".stockMonitor");
     private static final Path CONFIG_FILE = DATA_DIR.resolve("groups.json");
 
 
@@ -87,8 +106,68 @@ public class GroupConfig {
         }
     }
 
-    // ==== 内部缓存 ====
-    private static Root rootCache;
+    /**
+     * 一次修改；修改日志的每一行是一个事务内全部修改组成的 JSON 数组
+     */
+    record Mutation(Op op, String group, String marketCode, String stockCode) {
+        enum Op {ADD_GROUP, REMOVE_GROUP, ADD_STOCK, REMOVE_STOCK}
+    }
+
+    /**
+     * 修改后等待多久保存 groups.json，期间的修改合并为一次保存
+     */
+    private static final long SAVE_DELAY_MILLIS = 500;
+
+    /**
+     * 没有任何分组时创建的默认分组
+     */
+    private static final String DEFAULT_GROUP = "自选";
+
+    /**
+     * 读取修改日志的一行，兼容只有一个修改对象（而非数组）的旧记录
+     */
+    private static final ObjectReader mutationsReader = mapper.readerForListOf(Mutation.class)
+            .with(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+
+    private static final WriteBehindPersister persister =
+            new WriteBehindPersister(CONFIG_FILE, GroupConfig.class, GroupConfig::serialize, SAVE_DELAY_MILLIS);
+
+    /**
+     * 某一版本的分组配置，不可修改
+     *
+     * @param version 每次修改后递增
+     * @param groups  分组名 -> 该分组的股票，均保持加入顺序
+     */
+    public record Snapshot(long version, Map<String, List<Stock>> groups) {
+
+        public List<String> groupNames() {
+            return List.copyOf(groups.keySet());
+        }
+
+        /**
+         * 某个分组的股票，分组不存在时为空列表
+         */
+        public List<Stock> stocksOf(String groupName) {
+            return groups.getOrDefault(groupName, List.of());
+        }
+    }
+
+    /**
+     * 读线程无锁读取的最新快照，每次修改后在持有类锁时替换
+     */
+    private static volatile Snapshot snapshot = new Snapshot(0, Map.of());
+
+    // ==== 内部索引 ====
+    /**
+     * 分组名 -> 该分组的股票（股票键 -> 股票，保持加入顺序），分组也保持加入顺序
+     */
+    private static final Map<String, LinkedHashMap<String, Stock>> groups = new LinkedHashMap<>();
+    /**
+     * 股票键 -> 包含该股票的分组名
+     */
+    private static final Map<String, Set<String>> memberships = new HashMap<>();
+
+    private static final List<Runnable> listeners = new CopyOnWriteArrayList<>();
 
     static {
         load(); // 类加载时初始化
@@ -97,107 +176,367 @@ public class GroupConfig {
     // ==== API ====
 
     /**
-     * 读取配置文件
+     * 读取配置文件，并重放上次退出前尚未保存的修改
      */
     public static synchronized void load() {
-        try {
-            if (!Files.exists(CONFIG_FILE)) {
-                Files.createDirectories(DATA_DIR);
-                rootCache = new Root();
-                save();
-            } else {
-                rootCache = mapper.readValue(CONFIG_FILE.toFile(), Root.class);
+        groups.clear();
+        memberships.clear();
+        for (Group g : readFile().getGroups()) {
+            apply(new Mutation(Mutation.Op.ADD_GROUP, g.getName(), null, null));
+            for (Stock s : g.getStocks()) {
+                apply(new Mutation(Mutation.Op.ADD_STOCK, g.getName(), s.marketCode(), s.stockCode()));
             }
-            if (rootCache.groups.isEmpty()) {
-                rootCache.groups.add(new Group("自选"));
-                save();
+        }
+        boolean dirty = !Files.exists(CONFIG_FILE);
+        // 默认分组要在重放之前建好，日志里可能有加入该分组的记录
+        if (groups.isEmpty()) {
+            apply(new Mutation(Mutation.Op.ADD_GROUP, DEFAULT_GROUP, null, null));
+            dirty = true;
+        }
+        int replayed = 0;
+        for (String line : persister.readJournal()) {
+            try {
+                List<Mutation> mutations = mutationsReader.readValue(line);
+                for (Mutation m : mutations) {
+                    if (apply(m)) replayed++;
+                }
+            } catch (IOException e) {
+                LOG.warn("忽略无法解析的修改记录: {}", line);
             }
+        }
+        if (replayed > 0) {
+            LOG.info("从修改日志恢复了 {} 条分组修改", replayed);
+            dirty = true;
+        }
+        if (groups.isEmpty()) {
+            apply(new Mutation(Mutation.Op.ADD_GROUP, DEFAULT_GROUP, null, null));
+            dirty = true;
+        }
+        publish(null);
+        if (dirty) save();
+    }
+
+    private static Root readFile() {
+        if (!Files.exists(CONFIG_FILE)) return new Root();
+        try {
+            return mapper.readValue(CONFIG_FILE.toFile(), Root.class);
         } catch (IOException e) {
-            LOG.error(e.getMessage(), e);
-            rootCache = new Root();
+            // 保留损坏的文件，避免下次保存时覆盖掉
+            Path broken = CONFIG_FILE.resolveSibling("groups.json.broken-" + System.currentTimeMillis());
+            LOG.error("分组配置无法读取，已另存为 " + broken, e);
+            try {
+                Files.move(CONFIG_FILE, broken);
+            } catch (IOException ex) {
+                LOG.error(ex.getMessage(), ex);
+            }
+            return new Root();
         }
     }
 
     /**
-     * 保存到文件
+     * 稍后在后台保存到文件
      */
     public static synchronized void save() {
+        persister.requestFlush();
+    }
+
+    /**
+     * 立即保存到文件并等待写完，退出前调用
+     */
+    public static void flush() {
+        persister.flush();
+    }
+
+    private static byte[] serialize() {
         try {
-            Files.createDirectories(DATA_DIR);
-            mapper.writeValue(CONFIG_FILE.toFile(), rootCache);
-        } catch (IOException e) {
-            LOG.error(e.getMessage(), e);
+            return mapper.writeValueAsBytes(toRoot());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
         }
     }
 
+    private static Root toRoot() {
+        Root root = new Root();
+        groups.forEach((name, stocks) -> {
+            Group g = new Group(name);
+            g.getStocks().addAll(stocks.values());
+            root.getGroups().add(g);
+        });
+        return root;
+    }
+
     /**
-     * 获取所有分组
+     * 获取所有分组（副本）
      */
     public static synchronized List<Group> getGroups() {
-        return new ArrayList<>(rootCache.getGroups());
+        return toRoot().getGroups();
     }
 
     /**
-     * 获取某个分组的股票
+     * 最新的分组快照，只有一次 volatile 读，可在任意线程频繁调用；
+     * 需要感知变化的读者保存 {@link Snapshot#version()}，版本不变时无需重新读取
      */
-    public static synchronized List<Stock> getStocksOf(String groupName) {
-        return rootCache.getGroups().stream()
-                .filter(g -> g.getName().equals(groupName))
-                .findFirst()
-                .map(Group::getStocks)
-                .orElse(Collections.emptyList());
+    public static Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 获取所有分组名
+     */
+    public static List<String> getGroupNames() {
+        return snapshot.groupNames();
+    }
+
+    /**
+     * 获取某个分组的股票（不可修改）
+     */
+    public static List<Stock> getStocksOf(String groupName) {
+        return snapshot.stocksOf(groupName);
+    }
+
+    /**
+     * 获取包含某只股票的分组名
+     */
+    public static synchronized Set<String> getGroupsOf(String marketCode, String stockCode) {
+        Set<String> names = memberships.get(new Stock(marketCode, stockCode).key());
+        return names == null ? Collections.emptySet() : new HashSet<>(names);
+    }
+
+    /**
+     * 分组中是否有某只股票
+     */
+    public static synchronized boolean contains(String groupName, String marketCode, String stockCode) {
+        LinkedHashMap<String, Stock> stocks = groups.get(groupName);
+        return stocks != null && stocks.containsKey(new Stock(marketCode, stockCode).key());
     }
 
     /**
      * 添加分组
      */
-    public static synchronized boolean addGroup(String name) {
-        if (rootCache.getGroups().stream().anyMatch(g -> g.getName().equals(name))) {
-            return false; // 已存在
-        }
-        rootCache.getGroups().add(new Group(name));
-        save();
-        return true;
+    public static boolean addGroup(String name) {
+        return edit(tx -> tx.addGroup(name));
     }
 
     /**
      * 删除分组
      */
-    public static synchronized boolean removeGroup(String name) {
-        boolean removed = rootCache.getGroups().removeIf(g -> g.getName().equals(name));
-        if (removed) save();
-        return removed;
+    public static boolean removeGroup(String name) {
+        return edit(tx -> tx.removeGroup(name));
     }
 
     /**
      * 添加股票到指定分组
      */
-    public static synchronized boolean addStock(String groupName, String marketCode, String stockCode) {
-        for (Group g : rootCache.getGroups()) {
-            if (g.getName().equals(groupName)) {
-                boolean exists = g.getStocks().stream()
-                        .anyMatch(s -> s.marketCode().equals(marketCode) && s.stockCode().equals(stockCode));
-                if (exists) return false;
-                g.getStocks().add(new Stock(marketCode, stockCode));
-                save();
-                return true;
+    public static boolean addStock(String groupName, String marketCode, String stockCode) {
+        return edit(tx -> tx.addStock(groupName, marketCode, stockCode));
+    }
+
+    /**
+     * 从指定分组删除股票
+     */
+    public static boolean removeStock(String groupName, String marketCode, String stockCode) {
+        return edit(tx -> tx.removeStock(groupName, marketCode, stockCode));
+    }
+
+    /**
+     * 在一个事务中批量修改分组，例如
+     * <pre>
+     * GroupConfig.edit(tx -> {
+     *     tx.removeStock("自选", "1", "600519");
+     *     tx.addStock("白酒", "1", "600519");
+     * });
+     * </pre>
+     * 回调期间持有类锁，其他线程看不到中间状态；回调抛出异常时已做的修改全部撤销，异常继续抛出。
+     * 有变化时整个事务只写一条修改日志（崩溃后要么全部恢复、要么全部丢弃）、发布一个新快照、
+     * 通知一次 {@link #addListener} 登记的监听者。
+     *
+     * @return 是否有变化
+     */
+    public static boolean edit(Consumer<Tx> body) {
+        synchronized (GroupConfig.class) {
+            Tx tx = new Tx();
+            try {
+                body.accept(tx);
+            } catch (RuntimeException | Error e) {
+                if (!tx.applied.isEmpty()) restore(snapshot);
+                throw e;
+            } finally {
+                tx.closed = true;
+            }
+            if (tx.applied.isEmpty()) return false;
+            publish(tx.changed);
+            try {
+                persister.append(mapper.writeValueAsBytes(tx.applied));
+            } catch (JsonProcessingException e) {
+                LOG.error(e.getMessage(), e);
+                persister.requestFlush();
             }
         }
-        return false;
+        fireChanged();
+        return true;
     }
 
     /**
-     * 从指定分组删除股票
+     * 分组有变化后通知，在修改分组的线程上、释放锁之后调用
+     */
+    public static void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    private static void fireChanged() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * {@link #edit} 中的一个事务，只能在回调内使用；读取的状态包含本事务已做的修改
      */
-    public static synchronized boolean removeStock(String groupName, String marketCode, String stockCode) {
-        for (Group g : rootCache.getGroups()) {
-            if (g.getName().equals(groupName)) {
-                boolean removed = g.getStocks().removeIf(s ->
-                        s.marketCode().equals(marketCode) && s.stockCode().equals(stockCode));
-                if (removed) save();
-                return removed;
+    public static final class Tx {
+        private final List<Mutation> applied = new ArrayList<>();
+        private final Set<String> changed = new HashSet<>();
+        private boolean closed;
+
+        private Tx() {
+        }
+
+        public boolean addGroup(String name) {
+            return apply(new Mutation(Mutation.Op.ADD_GROUP, name, null, null));
+        }
+
+        public boolean removeGroup(String name) {
+            return apply(new Mutation(Mutation.Op.REMOVE_GROUP, name, null, null));
+        }
+
+        public boolean addStock(String groupName, String marketCode, String stockCode) {
+            return apply(new Mutation(Mutation.Op.ADD_STOCK, groupName, marketCode, stockCode));
+        }
+
+        public boolean removeStock(String groupName, String marketCode, String stockCode) {
+            return apply(new Mutation(Mutation.Op.REMOVE_STOCK, groupName, marketCode, stockCode));
+        }
+
+        /**
+         * 把股票从 from 移到 to；股票不在 from 或 to 不存在时不做修改，to 中已有时只从 from 删除
+         */
+        public boolean moveStock(String from, String to, String marketCode, String stockCode) {
+            checkOpen();
+            if (!groups.containsKey(to) || !contains(from, marketCode, stockCode)) return false;
+            removeStock(from, marketCode, stockCode);
+            addStock(to, marketCode, stockCode);
+            return true;
+        }
+
+        /**
+         * 让股票恰好属于 groupNames 中的分组（不存在的分组忽略），已在其中的分组保持原有位置
+         */
+        public boolean setGroupsOf(String marketCode, String stockCode, Collection<String> groupNames) {
+            checkOpen();
+            Set<String> wanted = new HashSet<>(groupNames);
+            boolean modified = false;
+            for (String g : getGroupsOf(marketCode, stockCode)) {
+                if (!wanted.contains(g)) modified |= removeStock(g, marketCode, stockCode);
+            }
+            for (String g : groupNames) {
+                modified |= addStock(g, marketCode, stockCode);
+            }
+            return modified;
+        }
+
+        public List<String> groupNames() {
+            checkOpen();
+            return new ArrayList<>(groups.keySet());
+        }
+
+        public Set<String> groupsOf(String marketCode, String stockCode) {
+            checkOpen();
+            return getGroupsOf(marketCode, stockCode);
+        }
+
+        private boolean apply(Mutation m) {
+            checkOpen();
+            if (!GroupConfig.apply(m)) return false;
+            applied.add(m);
+            changed.add(m.group());
+            return true;
+        }
+
+        private void checkOpen() {
+            if (closed) throw new IllegalStateException("事务已结束");
+        }
+    }
+
+    /**
+     * 按已发布的快照重建索引，用于撤销未提交的事务
+     */
+    private static void restore(Snapshot committed) {
+        groups.clear();
+        memberships.clear();
+        committed.groups().forEach((name, stocks) -> {
+            apply(new Mutation(Mutation.Op.ADD_GROUP, name, null, null));
+            for (Stock s : stocks) {
+                apply(new Mutation(Mutation.Op.ADD_STOCK, name, s.marketCode(), s.stockCode()));
+            }
+        });
+    }
+
+    /**
+     * 在索引上应用修改，重复应用同一修改不产生变化；除删除分组外均为 O(1)
+     *
+     * @return 是否有变化
+     */
+    private static boolean apply(Mutation m) {
+        switch (m.op()) {
+            case ADD_GROUP -> {
+                return groups.putIfAbsent(m.group(), new LinkedHashMap<>()) == null;
+            }
+            case REMOVE_GROUP -> {
+                LinkedHashMap<String, Stock> stocks = groups.remove(m.group());
+                if (stocks == null) return false;
+                for (String key : stocks.keySet()) {
+                    unlink(key, m.group());
+                }
+                return true;
+            }
+            case ADD_STOCK -> {
+                LinkedHashMap<String, Stock> stocks = groups.get(m.group());
+                if (stocks == null) return false;
+                Stock stock = new Stock(m.marketCode(), m.stockCode());
+                if (stocks.putIfAbsent(stock.key(), stock) != null) return false;
+                memberships.computeIfAbsent(stock.key(), k -> new LinkedHashSet<>()).add(m.group());
+                return true;
+            }
+            case REMOVE_STOCK -> {
+                LinkedHashMap<String, Stock> stocks = groups.get(m.group());
+                if (stocks == null) return false;
+                String key = new Stock(m.marketCode(), m.stockCode()).key();
+                if (stocks.remove(key) == null) return false;
+                unlink(key, m.group());
+                return true;
             }
         }
         return false;
     }
+
+    /**
+     * 按索引生成新版本的快照，未变化的分组沿用上一版本的列表
+     *
+     * @param changed 有变化的分组，null 表示全部重建
+     */
+    private static void publish(Set<String> changed) {
+        Snapshot prev = snapshot;
+        Map<String, List<Stock>> next = new LinkedHashMap<>();
+        groups.forEach((name, stocks) -> {
+            List<Stock> list = changed == null || changed.contains(name) ? null : prev.groups().get(name);
+            next.put(name, list != null ? list : List.copyOf(stocks.values()));
+        });
+        snapshot = new Snapshot(prev.version() + 1, Collections.unmodifiableMap(next));
+    }
+
+    private static void unlink(String key, String groupName) {
+        Set<String> names = memberships.get(key);
+        if (names == null) return;
+        names.remove(groupName);
+        if (names.isEmpty()) memberships.remove(key);
+    }
 }
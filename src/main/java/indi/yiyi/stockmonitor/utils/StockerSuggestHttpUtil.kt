@@ -3,6 +3,7 @@ package indi.yiyi.stockmonitor.utils
 import StockerMarketType
 import indi.yiyi.stockmonitor.data.StockerSuggestion
 import indi.yiyi.stockmonitor.enums.StockerQuoteProvider
+import indi.yiyi.stockmonitor.quote.Endpoints
 import org.apache.commons.text.StringEscapeUtils
 import org.apache.http.client.config.RequestConfig
 import org.apache.http.client.methods.HttpGet
@@ -21,7 +22,8 @@ object StockerSuggestHttpUtil {
     }
 
     fun suggest(key: String, provider: StockerQuoteProvider): List<StockerSuggestion> {
-        val url = "${provider.suggestHost}$key"
+        // 地址可由配置项 endpoint.* 指向模拟行情服务
+        val url = Endpoints.resolve("${provider.suggestHost}$key")
         val httpGet = HttpGet(url)
         if (provider == StockerQuoteProvider.SINA) {
             httpGet.setHeader("Referer", "https://finance.sina.com.cn") // Sina API requires this header
@@ -45,7 +47,10 @@ object StockerSuggestHttpUtil {
         }
     }
 
-    private fun parseSinaSuggestion(responseText: String): List<StockerSuggestion> {
+    /**
+     * 解析新浪联想接口响应，公开以便基准测试直接调用
+     */
+    fun parseSinaSuggestion(responseText: String): List<StockerSuggestion> {
         val result = mutableListOf<StockerSuggestion>()
         val regex = Regex("var suggestvalue=\"(.*?)\";")
         val matchResult = regex.find(responseText)
@@ -91,7 +96,10 @@ object StockerSuggestHttpUtil {
         return result
     }
 
-    private fun parseTencentSuggestion(responseText: String): List<StockerSuggestion> {
+    /**
+     * 解析腾讯联想接口响应，公开以便基准测试直接调用
+     */
+    fun parseTencentSuggestion(responseText: String): List<StockerSuggestion> {
         if (responseText.isEmpty()) {
             return emptyList()
         }
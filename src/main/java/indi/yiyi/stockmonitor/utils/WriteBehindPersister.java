@@ -0,0 +1,208 @@
+package indi.yiyi.stockmonitor.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 配置文件的延迟写入
+ * <p>
+ * 每次修改只在调用线程上向 {@code <文件名>.journal} 追加一行修改记录（通常几微秒），
+ * 由后台线程尽快将日志刷盘，并在 delayMillis 内的多次修改之后只保存一次完整快照：
+ * 先写临时文件并 fsync，再原子重命名覆盖原文件，任何时刻原文件要么是旧版本要么是新版本。
+ * 快照落盘且期间没有新的修改时清空日志。
+ * <p>
+ * 启动时由使用方读取原文件，再按顺序重放 {@link #readJournal()} 中的记录，
+ * 因此记录的重放必须是幂等的：快照已包含、日志尚未清空的记录会被再次应用。
+ * <p>
+ * 快照和修改记录都在构造时给定的 lock 上读写，{@link #append} 须在持有该锁时调用。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class WriteBehindPersister {
+
+    private static final Logger LOG = LogManager.getLogger(WriteBehindPersister.class);
+
+    private final Path file;
+    private final Path journalFile;
+    private final Object lock;
+    private final Supplier<byte[]> snapshot;
+    private final long delayMillis;
+
+    private final ScheduledExecutorService executor;
+
+    // 以下字段由 lock 保护
+    private FileChannel journal;
+    /**
+     * 已追加的记录数，只增不减
+     */
+    private long appended;
+    private boolean flushScheduled;
+    private boolean syncScheduled;
+
+    /**
+     * @param file        保存快照的文件
+     * @param lock        保护配置数据的锁
+     * @param snapshot    在持有 lock 时调用，返回完整快照
+     * @param delayMillis 第一次修改后等待多久保存快照，期间的修改合并为一次保存
+     */
+    public WriteBehindPersister(Path file, Object lock, Supplier<byte[]> snapshot, long delayMillis) {
+        this.file = file;
+        this.journalFile = file.resolveSibling(file.getFileName() + ".journal");
+        this.lock = lock;
+        this.snapshot = snapshot;
+        this.delayMillis = delayMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "config-writer-" + file.getFileName());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 读取修改日志中的记录，末尾未写完整的一行丢弃
+     */
+    public List<String> readJournal() {
+        try {
+            if (!Files.exists(journalFile)) return List.of();
+            byte[] data = Files.readAllBytes(journalFile);
+            int end = data.length;
+            while (end > 0 && data[end - 1] != '\n') end--;
+            if (end < data.length) {
+                LOG.warn("修改日志 {} 末尾有 {} 字节不完整的记录，已丢弃", journalFile, data.length - end);
+            }
+            return new String(data, 0, end, StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.isBlank())
+                    .toList();
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+            return List.of();
+        }
+    }
+
+    /**
+     * 追加一条修改记录，并安排稍后保存快照；须在持有 lock 时调用
+     */
+    public void append(byte[] record) {
+        try {
+            if (journal == null) {
+                Files.createDirectories(journalFile.getParent());
+                journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            ByteBuffer buf = ByteBuffer.allocate(record.length + 1).put(record).put((byte) '\n').flip();
+            while (buf.hasRemaining()) {
+                journal.write(buf);
+            }
+            appended++;
+            if (!syncScheduled) {
+                syncScheduled = true;
+                executor.execute(this::syncJournal);
+            }
+        } catch (IOException e) {
+            // 日志写不进去时仍按时保存快照，只是两次保存之间的修改可能在崩溃时丢失
+            LOG.error("写入修改日志失败", e);
+        }
+        schedule();
+    }
+
+    /**
+     * 安排稍后保存快照，已安排时不重复安排
+     */
+    public void requestFlush() {
+        synchronized (lock) {
+            schedule();
+        }
+    }
+
+    /**
+     * 立即保存快照并等待写完，用于退出前；调用时不能持有 lock
+     */
+    public synchronized void flush() {
+        byte[] data;
+        long records;
+        synchronized (lock) {
+            flushScheduled = false;
+            data = snapshot.get();
+            records = appended;
+        }
+        try {
+            writeAtomically(file, data);
+        } catch (IOException e) {
+            // 修改仍在日志中，下次修改或退出时重试
+            LOG.error("保存 {} 失败", file, e);
+            return;
+        }
+        synchronized (lock) {
+            // 写快照期间有新的修改时保留日志，下次保存后再清空
+            if (appended != records) return;
+            try {
+                if (journal != null) {
+                    journal.truncate(0);
+                    journal.force(false);
+                } else {
+                    // 本次运行还没有修改，日志是上次留下的、已重放进快照
+                    Files.deleteIfExists(journalFile);
+                }
+            } catch (IOException e) {
+                LOG.warn("清空修改日志失败", e);
+            }
+        }
+    }
+
+    private void schedule() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        executor.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void syncJournal() {
+        FileChannel ch;
+        synchronized (lock) {
+            syncScheduled = false;
+            ch = journal;
+        }
+        try {
+            ch.force(false);
+        } catch (IOException e) {
+            LOG.warn("修改日志刷盘失败", e);
+        }
+    }
+
+    /**
+     * 写临时文件并 fsync 后原子替换 file，再尽量将目录项刷盘
+     */
+    public static void writeAtomically(Path file, byte[] data) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // Windows 上不能打开目录，忽略
+        try (FileChannel dir = FileChannel.open(file.getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -7,7 +7,9 @@ import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 import dev.langchain4j.model.openai.OpenAiChatModel;
 import dev.langchain4j.service.AiServices;
 import indi.yiyi.stockmonitor.BaseStage;
+import indi.yiyi.stockmonitor.data.Quote;
 import indi.yiyi.stockmonitor.data.Stock;
+import indi.yiyi.stockmonitor.quote.QuoteSubscriptions;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -23,6 +25,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Locale;
 
 
 /**
@@ -43,7 +46,12 @@ public class AIStage extends BaseStage {
 
     private final List<ToolSpecification> toolSpecifications;
 
-    public AIStage(String deepseekApiKey, List<Stock> stocksOfCurrentGroup) {
+    /**
+     * 当前分组股票的行情订阅，窗口关闭时释放
+     */
+    private final QuoteSubscriptions.Subscription subscription;
+
+    public AIStage(String deepseekApiKey, QuoteSubscriptions subscriptions, List<Stock> stocksOfCurrentGroup) {
         if (deepseekApiKey == null || deepseekApiKey.isEmpty()) {
             throw new IllegalArgumentException("DEEPSEEK_API_KEY 不能为空");
         }
@@ -57,13 +65,18 @@ public class AIStage extends BaseStage {
 
         toolSpecifications = ToolSpecifications.toolSpecificationsFrom(SearchTools.class);
 
+        // 行情由订阅登记表统一拉取，助手只读取最近一次的结果
+        this.subscription = subscriptions.subscribe(stocksOfCurrentGroup, quotes -> {
+        });
+        getStage().setOnHidden(e -> subscription.close());
+
         String systemMsg = injectDynamicContext(stocksOfCurrentGroup);
 
         this.assistant = AiServices.builder(Assistant.class)
                 .chatLanguageModel(model)
                 .chatMemoryProvider(memoryId -> MessageWindowChatMemory.withMaxMessages(10))
                 .systemMessageProvider(memoryId -> systemMsg)
-                .tools(new SearchTools())
+                .tools(new SearchTools(), new QuoteTools(subscription))
                 .build();
 
         // 5. 初始化 UI 组件
@@ -113,7 +126,7 @@ public class AIStage extends BaseStage {
         });
 
         // 8. 启动时提示上下文已加载
-        appendMessage("欢迎使用 StockMonitor 股票助理。\n我目前的功能还不能获取到最新的行情信息哦，不过我可以跟你聊天呀。", false);
+        appendMessage("欢迎使用 StockMonitor 股票助理。\n我可以查看当前分组里自选股的最新行情，其他实时资讯还不能获取哦，不过我可以跟你聊天呀。", false);
     }
 
     // ** 新增：统一的消息添加方法 **
@@ -211,9 +224,32 @@ public class AIStage extends BaseStage {
     static class SearchTools {
 
         // 显式添加 name 参数，并使用驼峰或蛇形命名法
-        @Tool(name = "getMarketSituation", value = "当用户询问股价，股市行情，以及市场研报等实时咨讯时，不要回答其他的，必须回复以下内容")
+        @Tool(name = "getMarketSituation", value = "当用户询问自选股以外的股市行情，以及市场研报等实时咨讯时，不要回答其他的，必须回复以下内容")
         String answer() {
             return "你自己去网上查询一下吧，我还不能获取实时行情";
         }
     }
+
+    static class QuoteTools {
+
+        private final QuoteSubscriptions.Subscription subscription;
+
+        QuoteTools(QuoteSubscriptions.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Tool(name = "getWatchedQuotes", value = "当用户询问当前分组中自选股的股价、涨跌时，查询这些股票的最新行情")
+        String quotes() {
+            List<Quote> quotes = subscription.latest();
+            if (quotes.isEmpty()) {
+                return "暂时还没有拉取到自选股的行情";
+            }
+            StringBuilder sb = new StringBuilder();
+            for (Quote q : quotes) {
+                sb.append(String.format(Locale.CHINA, "%s（%s）现价 %.3f，涨跌 %.3f，涨跌幅 %.2f%%%n",
+                        q.name(), q.stockCode(), q.price(), q.changeAmt(), q.changeRate() * 100));
+            }
+            return sb.toString();
+        }
+    }
 }
\ No newline at end of file
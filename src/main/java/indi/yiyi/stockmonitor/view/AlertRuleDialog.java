@@ -0,0 +1,118 @@
+package indi.yiyi.stockmonitor.view;
+
+import indi.yiyi.stockmonitor.alert.AlertRule;
+import indi.yiyi.stockmonitor.data.StockRow;
+import indi.yiyi.stockmonitor.utils.AlertConfig;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Window;
+
+/**
+ * 单只股票的价格提醒设置：查看、添加、删除规则，修改立即保存并生效
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class AlertRuleDialog extends Dialog<Void> {
+
+    private final StockRow stock;
+    private final ListView<AlertRule> ruleList = new ListView<>();
+
+    public AlertRuleDialog(Window owner, StockRow stock) {
+        this.stock = stock;
+        initOwner(owner);
+        setTitle("价格提醒");
+        setHeaderText("【" + stock.getCode() + " - " + stock.getName() + "】现价 " + stock.getPrice());
+        getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+
+        ruleList.setPrefHeight(160);
+        ruleList.setPlaceholder(new Label("暂无提醒"));
+        ruleList.setCellFactory(lv -> new RuleCell());
+
+        ComboBox<AlertRule.Type> typeBox = new ComboBox<>();
+        typeBox.getItems().addAll(AlertRule.Type.values());
+        typeBox.getSelectionModel().selectFirst();
+        typeBox.setCellFactory(lv -> new TypeCell());
+        typeBox.setButtonCell(new TypeCell());
+
+        TextField valueField = new TextField();
+        valueField.setPromptText("价格（元）或涨跌幅（%）");
+        HBox.setHgrow(valueField, Priority.ALWAYS);
+
+        Label error = new Label();
+        error.setStyle("-fx-text-fill: #e53935;");
+
+        Button addButton = new Button("添加");
+        addButton.setOnAction(e -> {
+            double value;
+            try {
+                value = Double.parseDouble(valueField.getText().trim());
+            } catch (NumberFormatException ex) {
+                error.setText("请输入数字");
+                return;
+            }
+            if (value <= 0) {
+                error.setText("请输入大于 0 的数字");
+                return;
+            }
+            error.setText("");
+            AlertConfig.addRule(stock.getMarketCode(), stock.getRawCode(), typeBox.getValue(), value,
+                    AlertRule.DEFAULT_DEBOUNCE_SECONDS);
+            valueField.clear();
+            reload();
+        });
+
+        VBox box = new VBox(10, ruleList, new HBox(8, typeBox, valueField, addButton), error);
+        box.setPadding(new Insets(10));
+        getDialogPane().setContent(box);
+        reload();
+    }
+
+    private void reload() {
+        ruleList.getItems().setAll(AlertConfig.getRulesOf(stock.getMarketCode(), stock.getRawCode()));
+    }
+
+    private static class TypeCell extends ListCell<AlertRule.Type> {
+        @Override
+        protected void updateItem(AlertRule.Type item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(empty || item == null ? null : item.label());
+        }
+    }
+
+    private class RuleCell extends ListCell<AlertRule> {
+        private final Label label = new Label();
+        private final Button delete = new Button("删除");
+        private final HBox box = new HBox(8, label, delete);
+
+        RuleCell() {
+            HBox.setHgrow(label, Priority.ALWAYS);
+            label.setMaxWidth(Double.MAX_VALUE);
+            delete.setOnAction(e -> {
+                if (getItem() != null && AlertConfig.removeRule(getItem().id())) reload();
+            });
+        }
+
+        @Override
+        protected void updateItem(AlertRule item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setGraphic(null);
+                return;
+            }
+            label.setText(item.describe());
+            setGraphic(box);
+        }
+    }
+}
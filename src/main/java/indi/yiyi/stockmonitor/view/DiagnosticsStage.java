@@ -0,0 +1,116 @@
+package indi.yiyi.stockmonitor.view;
+
+import indi.yiyi.stockmonitor.BaseStage;
+import indi.yiyi.stockmonitor.metrics.LatencyHistogram;
+import indi.yiyi.stockmonitor.metrics.QuoteMetrics;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 诊断窗口：展示 {@link QuoteMetrics} 中各环节延迟分布、各接口请求计数与刷新周期计数，每秒刷新
+ * <p>
+ * 用于判断卡顿来自网络（连接+首字节、读取响应体）、解析，还是 FX 线程（界面更新）。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class DiagnosticsStage extends BaseStage {
+
+    private final QuoteMetrics metrics;
+
+    private final Label ticksLabel = new Label();
+    private final GridPane latencyGrid = newGrid();
+    private final GridPane endpointGrid = newGrid();
+    private final GridPane gaugeGrid = newGrid();
+
+    private final Timeline refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+
+    public DiagnosticsStage(QuoteMetrics metrics) {
+        this.metrics = metrics;
+        setTitle("诊断信息");
+        getStage().setWidth(560);
+        getStage().setHeight(460);
+
+        VBox root = new VBox(8,
+                ticksLabel,
+                new Label("各环节耗时（毫秒）"), latencyGrid,
+                new Label("接口请求"), endpointGrid,
+                new Label("计数"), gaugeGrid);
+        root.setPadding(new Insets(10));
+
+        ScrollPane scrollPane = new ScrollPane(root);
+        scrollPane.setFitToWidth(true);
+        setContentView(scrollPane);
+
+        refresh();
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        refresher.play();
+        getStage().setOnHidden(e -> refresher.stop());
+    }
+
+    private void refresh() {
+        ticksLabel.setText("最近一分钟刷新周期：" + metrics.getTicksPerMinute());
+
+        latencyGrid.getChildren().clear();
+        latencyGrid.addRow(0, header("环节"), header("次数"), header("P50"), header("P90"), header("P99"),
+                header("最大"));
+        int row = 1;
+        for (QuoteMetrics.Step step : QuoteMetrics.Step.values()) {
+            LatencyHistogram h = metrics.latency(step);
+            latencyGrid.addRow(row++, new Label(step.label()), new Label(String.valueOf(h.count())),
+                    millis(h.percentileMicros(50)), millis(h.percentileMicros(90)), millis(h.percentileMicros(99)),
+                    millis(h.maxMicros()));
+        }
+
+        endpointGrid.getChildren().clear();
+        endpointGrid.addRow(0, header("接口"), header("成功"), header("超时"), header("出错"), header("截止丢弃"),
+                header("状态码"));
+        row = 1;
+        for (QuoteMetrics.Endpoint ep : metrics.endpoints()) {
+            endpointGrid.addRow(row++, new Label(ep.name()), new Label(String.valueOf(ep.success())),
+                    new Label(String.valueOf(ep.timeout())), new Label(String.valueOf(ep.error())),
+                    new Label(String.valueOf(ep.shed())), new Label(statuses(ep.statuses())));
+        }
+
+        gaugeGrid.getChildren().clear();
+        row = 0;
+        for (Map.Entry<String, Long> gauge : metrics.getGauges().entrySet()) {
+            gaugeGrid.addRow(row++, new Label(gauge.getKey()), new Label(String.valueOf(gauge.getValue())));
+        }
+    }
+
+    private static String statuses(Map<Integer, Long> statuses) {
+        if (statuses.isEmpty()) return "-";
+        return statuses.entrySet().stream()
+                .map(e -> e.getKey() + "×" + e.getValue())
+                .collect(Collectors.joining(" "));
+    }
+
+    private static Label millis(long micros) {
+        return new Label(String.format(Locale.ROOT, "%.1f", micros / 1000.0));
+    }
+
+    private static Label header(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-font-weight: bold;");
+        return label;
+    }
+
+    private static GridPane newGrid() {
+        GridPane grid = new GridPane();
+        grid.setHgap(16);
+        grid.setVgap(4);
+        return grid;
+    }
+}
@@ -0,0 +1,45 @@
+package indi.yiyi.stockmonitor.view;
+
+import indi.yiyi.stockmonitor.metrics.QuoteMetrics;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 合并一个刷新周期内的界面更新
+ * <p>
+ * 抓取线程通过 {@link #post(Runnable)} 收集各表格的更新，周期结束时 {@link #flush()}
+ * 只提交一次 {@link Platform#runLater}；本周期没有任何变化时不提交。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class FxUpdateQueue {
+
+    private List<Runnable> pending = new ArrayList<>();
+
+    /**
+     * @param update 需要在 FX 线程执行的更新，为 null 时忽略
+     */
+    public synchronized void post(Runnable update) {
+        if (update != null) pending.add(update);
+    }
+
+    public void flush() {
+        List<Runnable> updates;
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+            updates = pending;
+            pending = new ArrayList<>();
+        }
+        Platform.runLater(() -> {
+            long start = System.nanoTime();
+            for (Runnable r : updates) {
+                r.run();
+            }
+            QuoteMetrics.get().record(QuoteMetrics.Step.FX_APPLY, System.nanoTime() - start);
+        });
+    }
+}
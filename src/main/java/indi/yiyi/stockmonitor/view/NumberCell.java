@@ -0,0 +1,64 @@
+package indi.yiyi.stockmonitor.view;
+
+import indi.yiyi.stockmonitor.utils.FixedDecimalFormatter;
+import javafx.scene.control.TableCell;
+
+/**
+ * 定点小数单元格
+ * <p>
+ * 文本写入单元格自有的 char[] 缓冲区，值未变化时沿用上次的文本不再格式化；
+ * 右对齐通过样式类 number-cell 设置一次，不在每次更新时拼接 style 字符串。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class NumberCell<S> extends TableCell<S, Number> {
+
+    public static final String STYLE_CLASS = "number-cell";
+
+    private final int scale;
+    private final double multiplier;
+    private final char suffix;
+
+    private final char[] buf = new char[FixedDecimalFormatter.BUFFER_SIZE];
+    /**
+     * 当前文本对应的值，文本为空时无意义
+     */
+    private double shownValue;
+
+    /**
+     * @param scale      小数位数
+     * @param multiplier 显示前乘以的倍数，百分比为 100
+     * @param suffix     追加的后缀字符，为 0 时不追加
+     */
+    public NumberCell(int scale, double multiplier, char suffix) {
+        this.scale = scale;
+        this.multiplier = multiplier;
+        this.suffix = suffix;
+        getStyleClass().add(STYLE_CLASS);
+    }
+
+    public static <S> NumberCell<S> decimal(int scale) {
+        return new NumberCell<>(scale, 1, (char) 0);
+    }
+
+    public static <S> NumberCell<S> percent(int scale) {
+        return new NumberCell<>(scale, 100, '%');
+    }
+
+    @Override
+    protected void updateItem(Number v, boolean empty) {
+        super.updateItem(v, empty);
+        if (empty || v == null) {
+            setText(null);
+            return;
+        }
+        double value = v.doubleValue();
+        if (getText() != null && Double.compare(value, shownValue) == 0) {
+            return;
+        }
+        shownValue = value;
+        setText(new String(buf, 0, FixedDecimalFormatter.format(value * multiplier, scale, suffix, buf)));
+    }
+}
@@ -0,0 +1,233 @@
+package indi.yiyi.stockmonitor.view;
+
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.data.StockRow;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.TableCell;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 分时迷你走势单元格
+ * <p>
+ * 横轴固定为全天 {@value #BARS} 根分钟线，每根按分钟标签落到画布的某一列，同一列内只画最低到最高的竖线
+ * （min-max 降采样），因此新分钟线只会画在右侧。每次刷新只清除并重画最后一列及之后的部分，
+ * 不重画整幅图；换行、改变列宽、颜色或纵轴范围不够时才整幅重画。
+ * 单元格值为 {@link StockRow#seriesVersionProperty()}，只有可见的行会创建单元格；所在分组未显示时跳过绘制，
+ * 下次显示后从上次画到的位置继续。线条颜色取单元格的文字颜色，与行的涨跌样式一致。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class SparklineCell extends TableCell<StockRow, Number> {
+
+    public static final String STYLE_CLASS = "sparkline-cell";
+
+    /**
+     * 9:30 到 15:00 的分钟线数
+     */
+    static final int BARS = 241;
+
+    private static final double HEIGHT = 18;
+    private static final Color BASELINE = Color.gray(0.5, 0.4);
+
+    private final Function<String, Optional<IntradaySeries>> seriesLookup;
+    private final Canvas canvas = new Canvas(0, HEIGHT);
+
+    /**
+     * 当前画布上的序列，为 null 时下次整幅重画
+     */
+    private IntradaySeries drawn;
+    private double preClose;
+    /**
+     * 纵轴半幅（元），以昨收为中线
+     */
+    private double range;
+    private Paint stroke;
+    /**
+     * 已画到的最后一列，以及该列第一根分钟线的序号
+     */
+    private int lastColumn;
+    private int lastColumnBar;
+    private double[] colMin = new double[0];
+    private double[] colMax = new double[0];
+    private double[] colLast = new double[0];
+
+    public SparklineCell(Function<String, Optional<IntradaySeries>> seriesLookup) {
+        this.seriesLookup = seriesLookup;
+        getStyleClass().add(STYLE_CLASS);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        widthProperty().addListener((obs, o, n) -> resize());
+        textFillProperty().addListener((obs, o, n) -> {
+            drawn = null;
+            redraw();
+        });
+    }
+
+    @Override
+    protected void updateItem(Number version, boolean empty) {
+        super.updateItem(version, empty);
+        if (empty || version == null) {
+            setGraphic(null);
+            drawn = null;
+            return;
+        }
+        setGraphic(canvas);
+        redraw();
+    }
+
+    private void resize() {
+        double w = Math.floor(getWidth() - snappedLeftInset() - snappedRightInset());
+        if (w == canvas.getWidth()) return;
+        canvas.setWidth(Math.max(w, 0));
+        int n = (int) canvas.getWidth();
+        colMin = new double[n];
+        colMax = new double[n];
+        colLast = new double[n];
+        drawn = null;
+        redraw();
+    }
+
+    private void redraw() {
+        int index = getIndex();
+        if (isEmpty() || index < 0 || index >= getTableView().getItems().size() || !isShowing()) return;
+        int width = (int) canvas.getWidth();
+        if (width <= 0) return;
+
+        StockRow row = getTableView().getItems().get(index);
+        IntradaySeries series = seriesLookup.apply(row.getKey()).orElse(null);
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        if (series == null) {
+            if (drawn != null) g.clearRect(0, 0, width, HEIGHT);
+            drawn = null;
+            return;
+        }
+
+        double pc = row.getPreClose();
+        boolean full = series != drawn || lastColumn < 0 || pc != preClose || getTextFill() != stroke;
+        int from = full ? 0 : lastColumnBar;
+        int[] minutes = series.minutesFrom(from);
+        double[] closes = series.closesFrom(from);
+        int n = Math.min(minutes.length, closes.length);
+        if (n == 0 && !full) return;
+
+        if (!full) {
+            for (int i = 0; i < n; i++) {
+                if (Math.abs(closes[i] - preClose) > range) {
+                    full = true;
+                    break;
+                }
+            }
+            if (full) {
+                from = 0;
+                minutes = series.minutesFrom(0);
+                closes = series.closesFrom(0);
+                n = Math.min(minutes.length, closes.length);
+            }
+        }
+
+        int startColumn;
+        if (full) {
+            drawn = series;
+            preClose = pc > 0 ? pc : (n > 0 ? closes[0] : 0);
+            stroke = getTextFill();
+            range = preClose * 0.01;
+            for (int i = 0; i < n; i++) {
+                range = Math.max(range, Math.abs(closes[i] - preClose) * 1.2);
+            }
+            if (range <= 0) range = 1;
+            startColumn = 0;
+            lastColumn = -1;
+            g.clearRect(0, 0, width, HEIGHT);
+            g.setStroke(BASELINE);
+            g.setLineWidth(1);
+            g.strokeLine(0, y(preClose), width, y(preClose));
+        } else {
+            // 最后一列的最后一根线可能在同一分钟内被更新，该列重新统计
+            startColumn = lastColumn;
+            g.clearRect(startColumn, 0, width - startColumn, HEIGHT);
+            g.setStroke(BASELINE);
+            g.setLineWidth(1);
+            g.strokeLine(startColumn, y(preClose), width, y(preClose));
+        }
+
+        Arrays.fill(colMin, startColumn, width, Double.NaN);
+        Arrays.fill(colMax, startColumn, width, Double.NaN);
+        int endColumn = startColumn;
+        for (int i = 0; i < n; i++) {
+            int c = column(minutes[i], width);
+            if (c < startColumn) continue;
+            if (Double.isNaN(colMin[c])) {
+                colMin[c] = closes[i];
+                colMax[c] = closes[i];
+                if (c > lastColumn || c == startColumn) {
+                    lastColumn = c;
+                    lastColumnBar = from + i;
+                }
+            } else {
+                colMin[c] = Math.min(colMin[c], closes[i]);
+                colMax[c] = Math.max(colMax[c], closes[i]);
+            }
+            colLast[c] = closes[i];
+            endColumn = Math.max(endColumn, c);
+        }
+
+        g.setStroke(stroke);
+        int prevColumn = previousColumn(startColumn);
+        double prev = prevColumn >= 0 ? colLast[prevColumn] : Double.NaN;
+        for (int c = startColumn; c <= endColumn; c++) {
+            if (Double.isNaN(colMin[c])) continue;
+            // 与前一列的最后一个点相连
+            double lo = Double.isNaN(prev) ? colMin[c] : Math.min(colMin[c], prev);
+            double hi = Double.isNaN(prev) ? colMax[c] : Math.max(colMax[c], prev);
+            g.strokeLine(c + 0.5, y(hi) - 0.5, c + 0.5, y(lo) + 0.5);
+            prev = colLast[c];
+        }
+    }
+
+    /**
+     * column 之前最近一个有数据的列，没有时返回 -1
+     */
+    private int previousColumn(int column) {
+        for (int c = column - 1; c >= 0; c--) {
+            if (!Double.isNaN(colMin[c])) return c;
+        }
+        return -1;
+    }
+
+    private double y(double price) {
+        double mid = HEIGHT / 2;
+        return mid - (price - preClose) / range * (mid - 1);
+    }
+
+    /**
+     * 分钟标签对应的列：9:30 为第 0 根，午休不占位置
+     */
+    static int column(int minute, int width) {
+        int bar;
+        if (minute <= 570) bar = 0;
+        else if (minute <= 690) bar = minute - 570;
+        else if (minute <= 780) bar = 120;
+        else bar = Math.min(minute - 660, BARS - 1);
+        return bar * width / BARS;
+    }
+
+    /**
+     * 单元格及其所有上级节点都可见，即所在分组正在显示
+     */
+    private boolean isShowing() {
+        if (getScene() == null) return false;
+        for (Node node = this; node != null; node = node.getParent()) {
+            if (!node.isVisible()) return false;
+        }
+        return true;
+    }
+}
@@ -2,9 +2,17 @@ package indi.yiyi.stockmonitor.view;
 
 import github.nonoas.jfx.flat.ui.control.AlignedTableColumn;
 import indi.yiyi.stockmonitor.AppContext;
+import indi.yiyi.stockmonitor.data.IntradaySeries;
+import indi.yiyi.stockmonitor.data.Quote;
+import indi.yiyi.stockmonitor.data.Stock;
 import indi.yiyi.stockmonitor.data.StockGroup;
 import indi.yiyi.stockmonitor.data.StockRow;
+import indi.yiyi.stockmonitor.indicator.IndicatorEngine;
+import indi.yiyi.stockmonitor.indicator.IndicatorSpec;
+import indi.yiyi.stockmonitor.quote.QuoteStore;
+import indi.yiyi.stockmonitor.utils.AppConfig;
 import indi.yiyi.stockmonitor.utils.GroupConfig;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -17,21 +25,24 @@ import javafx.scene.control.CheckBox;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.MenuItem;
-import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.layout.VBox;
-import javafx.util.Callback;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -46,10 +57,25 @@ public class StockTableView extends TableView<StockRow> {
     private static final PseudoClass UP = PseudoClass.getPseudoClass("up");
     private static final PseudoClass DOWN = PseudoClass.getPseudoClass("down");
 
-    private StockGroup stockGroup;
+    /**
+     * 显示中的指标列，逗号分隔的 {@link IndicatorSpec#id()}
+     */
+    private static final String INDICATORS_CONFIG = "table.indicators";
 
-    public StockTableView(StockGroup stockGroup) {
+    private StockGroup stockGroup;
+    private final QuoteStore quoteStore;
+    private final IndicatorEngine indicators;
+    private final Map<IndicatorSpec, TableColumn<StockRow, Number>> indicatorColumns = new LinkedHashMap<>();
+
+    /**
+     * @param seriesLookup 按股票键取当日分时序列，用于分时列
+     * @param indicators   指标列的数据来源，只为显示中的指标列登记股票
+     */
+    public StockTableView(StockGroup stockGroup, QuoteStore quoteStore,
+                          Function<String, Optional<IntradaySeries>> seriesLookup, IndicatorEngine indicators) {
         this.stockGroup = stockGroup;
+        this.quoteStore = quoteStore;
+        this.indicators = indicators;
 
         TableColumn<StockRow, Number> colIndex = new AlignedTableColumn<>("序号", AlignedTableColumn.Alignment.CENTER);
         colIndex.setPrefWidth(40);
@@ -58,31 +84,39 @@ public class StockTableView extends TableView<StockRow> {
 
         TableColumn<StockRow, String> colCode = new TableColumn<>("股票代码");
         colCode.setPrefWidth(120);
-        colCode.setCellValueFactory(c -> c.getValue().codeProperty());
+        colCode.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().getCode()));
 
         TableColumn<StockRow, String> colName = new AlignedTableColumn<>("股票名称", AlignedTableColumn.Alignment.CENTER);
         colName.setPrefWidth(140);
-        colName.setCellValueFactory(c -> c.getValue().nameProperty());
+        colName.setCellValueFactory(c -> c.getValue().nameValue());
 
         TableColumn<StockRow, Number> colChangeRate = new AlignedTableColumn<>("涨跌幅", AlignedTableColumn.Alignment.CENTER);
 
         colChangeRate.setPrefWidth(100);
-        colChangeRate.setCellValueFactory(c -> c.getValue().changeRateProperty());
+        colChangeRate.setCellValueFactory(c -> c.getValue().changeRateValue());
         colChangeRate.setComparator(Comparator.comparingDouble(n -> n == null ? 0.0 : n.doubleValue()));
         // 显示成百分比文本
-        colChangeRate.setCellFactory(percentCell());
+        colChangeRate.setCellFactory(col -> NumberCell.percent(2));
 
         TableColumn<StockRow, Number> colPrice = new AlignedTableColumn<>("当前股价", AlignedTableColumn.Alignment.CENTER);
         colPrice.setPrefWidth(120);
-        colPrice.setCellValueFactory(c -> c.getValue().priceProperty());
-        colPrice.setCellFactory(formatNumber());
+        colPrice.setCellValueFactory(c -> c.getValue().priceValue());
+        colPrice.setCellFactory(col -> NumberCell.decimal(3));
 
         TableColumn<StockRow, Number> colChangeAmt = new AlignedTableColumn<>("当日涨跌", AlignedTableColumn.Alignment.CENTER);
         colChangeAmt.setPrefWidth(120);
-        colChangeAmt.setCellValueFactory(c -> c.getValue().changeAmtProperty());
-        colChangeAmt.setCellFactory(formatNumber());
-
-        getColumns().addAll(colIndex, colCode, colName, colChangeRate, colPrice, colChangeAmt);
+        colChangeAmt.setCellValueFactory(c -> c.getValue().changeAmtValue());
+        colChangeAmt.setCellFactory(col -> NumberCell.decimal(3));
+
+        // 分时走势：只在价格或成交量变化时重画，绘制新增部分
+        TableColumn<StockRow, Number> colSparkline = new TableColumn<>("分时");
+        colSparkline.setPrefWidth(100);
+        colSparkline.setSortable(false);
+        colSparkline.setCellValueFactory(c -> c.getValue().seriesVersionProperty());
+        colSparkline.setCellFactory(col -> new SparklineCell(seriesLookup));
+
+        getColumns().addAll(colIndex, colCode, colName, colChangeRate, colPrice, colChangeAmt, colSparkline);
+        addIndicatorColumns();
         setItems(data);
         setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
 
@@ -90,14 +124,15 @@ public class StockTableView extends TableView<StockRow> {
         setRowFactory(tv -> {
             TableRow<StockRow> row = new TableRow<>();
 
-            ChangeListener<Number> amtListener = (obs, ov, nv) -> applyPseudo(row);
+            // 只在涨跌方向改变时更新样式
+            ChangeListener<Number> signListener = (obs, ov, nv) -> applyPseudo(row);
 
             row.itemProperty().addListener((obs, oldItem, newItem) -> {
                 if (oldItem != null) {
-                    oldItem.changeAmtProperty().removeListener(amtListener);
+                    oldItem.changeSignProperty().removeListener(signListener);
                 }
                 if (newItem != null) {
-                    newItem.changeAmtProperty().addListener(amtListener);
+                    newItem.changeSignProperty().addListener(signListener);
                 }
                 applyPseudo(row);
             });
@@ -106,7 +141,8 @@ public class StockTableView extends TableView<StockRow> {
 
             MenuItem del = new MenuItem("删除");
             MenuItem addToGroup = new MenuItem("修改分组");
-            ContextMenu cm = new ContextMenu(addToGroup, del);
+            MenuItem alert = new MenuItem("价格提醒");
+            ContextMenu cm = new ContextMenu(addToGroup, alert, del);
 
             // 仅在行非空时显示
             row.contextMenuProperty().bind(
@@ -128,15 +164,16 @@ public class StockTableView extends TableView<StockRow> {
                     return;
                 }
 
+                stockGroup.getSubscription().remove(new Stock(item.getMarketCode(), item.getRawCode()));
+
                 // 2) 从表格移除
                 String key = item.getMarketCode() + "_" + item.getRawCode();
                 rowByKey.remove(key);
                 getItems().remove(item);
+                forEachShownIndicator(spec -> indicators.release(key, spec));
 
                 // 3) 重新编号（可选）
-                for (int i = 0; i < getItems().size(); i++) {
-                    getItems().get(i).setIndex(i + 1);
-                }
+                renumber();
             });
 
             addToGroup.setOnAction(e -> {
@@ -145,21 +182,61 @@ public class StockTableView extends TableView<StockRow> {
                     showModifyGroupDialog(stock);
                 }
             });
+            alert.setOnAction(e -> {
+                StockRow stock = row.getItem();
+                if (stock != null) {
+                    new AlertRuleDialog(AppContext.getMainStage(), stock).showAndWait();
+                }
+            });
             return row;
         });
     }
 
+    /**
+     * 指标列默认隐藏，通过表头右侧的菜单按钮勾选显示；显示时才为各行登记指标
+     */
+    private void addIndicatorColumns() {
+        List<String> shown = Arrays.asList(AppConfig.get(INDICATORS_CONFIG, "").split(","));
+        for (IndicatorSpec spec : IndicatorSpec.COLUMNS) {
+            TableColumn<StockRow, Number> col = new AlignedTableColumn<>(spec.label(), AlignedTableColumn.Alignment.CENTER);
+            col.setPrefWidth(80);
+            col.setVisible(shown.contains(spec.id()));
+            col.setCellValueFactory(c -> {
+                StockRow row = c.getValue();
+                return row.seriesValue(spec, () -> indicators.value(row.getKey(), spec));
+            });
+            col.setCellFactory(c -> spec.percent() ? NumberCell.percent(spec.scale()) : NumberCell.decimal(spec.scale()));
+            col.visibleProperty().addListener((obs, o, visible) -> {
+                for (StockRow row : data) {
+                    if (visible) {
+                        indicators.acquire(row.getKey(), spec);
+                    } else {
+                        indicators.release(row.getKey(), spec);
+                    }
+                }
+                AppConfig.getConfigManager().set(INDICATORS_CONFIG, indicatorColumns.entrySet().stream()
+                        .filter(e -> e.getValue().isVisible())
+                        .map(e -> e.getKey().id())
+                        .collect(Collectors.joining(",")));
+            });
+            indicatorColumns.put(spec, col);
+            getColumns().add(col);
+        }
+        setTableMenuButtonVisible(true);
+    }
+
+    private void forEachShownIndicator(Consumer<IndicatorSpec> action) {
+        indicatorColumns.forEach((spec, col) -> {
+            if (col.isVisible()) action.accept(spec);
+        });
+    }
+
     private void showModifyGroupDialog(StockRow stock) {
         // 取出所有分组
-        List<GroupConfig.Group> allGroups = GroupConfig.getGroups();
+        List<String> allGroups = GroupConfig.getGroupNames();
 
         // 当前在哪些分组里
-        Set<String> currentGroups = allGroups.stream()
-                .filter(g -> g.getStocks().stream()
-                        .anyMatch(s -> s.marketCode().equals(stock.getMarketCode())
-                                && s.stockCode().equals(stock.getRawCode())))
-                .map(GroupConfig.Group::getName)
-                .collect(Collectors.toSet());
+        Set<String> currentGroups = GroupConfig.getGroupsOf(stock.getMarketCode(), stock.getRawCode());
 
         Dialog<List<String>> dialog = new Dialog<>();
         dialog.setTitle("修改分组");
@@ -173,10 +250,10 @@ public class StockTableView extends TableView<StockRow> {
         box.setPadding(new Insets(10));
 
         Map<String, CheckBox> checkBoxMap = new LinkedHashMap<>();
-        for (GroupConfig.Group g : allGroups) {
-            CheckBox cb = new CheckBox(g.getName());
-            cb.setSelected(currentGroups.contains(g.getName()));
-            checkBoxMap.put(g.getName(), cb);
+        for (String g : allGroups) {
+            CheckBox cb = new CheckBox(g);
+            cb.setSelected(currentGroups.contains(g));
+            checkBoxMap.put(g, cb);
             box.getChildren().add(cb);
         }
 
@@ -193,64 +270,96 @@ public class StockTableView extends TableView<StockRow> {
         });
 
         Optional<List<String>> result = dialog.showAndWait();
-        result.ifPresent(selectedGroups -> {
-            // 先从所有分组移除该股票
-            for (GroupConfig.Group g : allGroups) {
-                GroupConfig.removeStock(g.getName(), stock.getMarketCode(), stock.getRawCode());
-            }
+        // 一个事务内完成，只保存一次，各分组表格一起更新
+        result.ifPresent(selectedGroups -> GroupConfig.edit(tx ->
+                tx.setGroupsOf(stock.getMarketCode(), stock.getRawCode(), selectedGroups)));
+    }
 
-            // 再加入勾选的分组
-            for (String gName : selectedGroups) {
-                GroupConfig.addStock(gName, stock.getMarketCode(), stock.getRawCode());
-            }
 
-            // 刷新持久化文件
-            GroupConfig.save();
-        });
+    private void applyPseudo(TableRow<StockRow> row) {
+        StockRow item = row.getItem();
+        boolean up = false, down = false;
+        if (item != null && !row.isEmpty()) {
+            int sign = item.changeSignProperty().get();
+            up = sign > 0;
+            down = sign < 0;
+        }
+        row.pseudoClassStateChanged(UP, up);
+        row.pseudoClassStateChanged(DOWN, down);
     }
 
-
-    // 定义一个百分比单元格工厂
-    private static Callback<TableColumn<StockRow, Number>, TableCell<StockRow, Number>> percentCell() {
-        return col -> new TableCell<>() {
-            @Override
-            protected void updateItem(Number v, boolean empty) {
-                super.updateItem(v, empty);
-                if (empty || v == null) {
-                    setText(null);
-                } else {
-                    setText(String.format(Locale.CHINA, "%.2f%%", v.doubleValue() * 100));
-                    setStyle("-fx-alignment: " + AlignedTableColumn.Alignment.RIGHT.getCellCss() + ";");
-                }
+    /**
+     * 在抓取线程上按 {@link QuoteStore} 槽位准备更新，每行只刷新本周期变化的字段
+     * （{@link QuoteStore#changedFields(int)}）；需在 {@link QuoteStore#drainChanged()} 之后、下次取出之前调用
+     *
+     * @return 需要在 FX 线程执行的更新，没有行情时返回 null
+     */
+    public Runnable diff(List<Quote> quotes) {
+        if (quotes.isEmpty()) return null;
+        List<Quote> changed = new ArrayList<>(quotes.size());
+        int[] slots = new int[quotes.size()];
+        int[] fields = new int[quotes.size()];
+        for (Quote q : quotes) {
+            int slot = quoteStore.slotOf(q.key());
+            if (slot < 0) continue;
+            slots[changed.size()] = slot;
+            fields[changed.size()] = quoteStore.changedFields(slot);
+            changed.add(q);
+        }
+        return () -> {
+            for (int i = 0; i < changed.size(); i++) {
+                apply(changed.get(i), slots[i], fields[i]);
             }
         };
     }
 
-    private Callback<TableColumn<StockRow, Number>, TableCell<StockRow, Number>> formatNumber() {
-        return col -> new TableCell<>() {
-            @Override
-            protected void updateItem(Number value, boolean empty) {
-                super.updateItem(value, empty);
-                if (empty || value == null) {
-                    setText(null);
-                } else {
-                    setText(String.format(Locale.CHINA, "%.3f", value.doubleValue()));
-                    setStyle("-fx-alignment: " + AlignedTableColumn.Alignment.RIGHT.getCellCss() + ";");
-                }
-            }
-        };
+    /**
+     * 展示一只已写入 {@link QuoteStore} 的股票，已存在时刷新；需在 FX 线程调用
+     */
+    public void show(Quote q) {
+        int slot = quoteStore.slotOf(q.key());
+        if (slot >= 0) apply(q, slot, QuoteStore.ALL_FIELDS);
     }
 
-    private void applyPseudo(TableRow<StockRow> row) {
-        StockRow item = row.getItem();
-        boolean up = false, down = false;
-        if (item != null && !row.isEmpty()) {
-            double v = item.getChangeAmt();
-            up = v > 0;
-            down = v < 0;
+    /**
+     * @param fields 变化的字段，新行总是全部读取
+     */
+    private void apply(Quote q, int slot, int fields) {
+        // 每个表格持有各自的行对象，序号按表格分别编号；行只保存槽位，数值从 QuoteStore 读取
+        StockRow existed = rowByKey.get(q.key());
+        if (existed == null) {
+            StockRow row = new StockRow(getItems().size() + 1, q.marketCode(), q.stockCode(), q.displayCode(),
+                    quoteStore, slot);
+            rowByKey.put(q.key(), row);
+            getItems().add(row);
+            forEachShownIndicator(spec -> indicators.acquire(q.key(), spec));
+        } else {
+            existed.refresh(fields);
+        }
+    }
+
+    /**
+     * 移除不在 stocks 中的行并重新编号，用于分组配置变化后；需在 FX 线程调用
+     */
+    public void retainRows(Collection<Stock> stocks) {
+        Set<String> keep = new HashSet<>();
+        for (Stock s : stocks) {
+            keep.add(s.key());
+        }
+        boolean removed = getItems().removeIf(row -> {
+            String key = row.getKey();
+            if (keep.contains(key)) return false;
+            rowByKey.remove(key);
+            forEachShownIndicator(spec -> indicators.release(key, spec));
+            return true;
+        });
+        if (removed) renumber();
+    }
+
+    private void renumber() {
+        for (int i = 0; i < getItems().size(); i++) {
+            getItems().get(i).setIndex(i + 1);
         }
-        row.pseudoClassStateChanged(UP, up);
-        row.pseudoClassStateChanged(DOWN, down);
     }
 
     public boolean containsStockKey(String key) {
@@ -0,0 +1,430 @@
+package indi.yiyi.stockmonitor.mock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地模拟行情服务，用于离线的压测与延迟测试
+ * <p>
+ * 按线上接口的路径与响应格式提供：
+ * <ul>
+ *     <li>东方财富 /api/qt/ulist.np/get（批量快照）、/api/qt/stock/trends2/get（分时）</li>
+ *     <li>新浪 /list=（行情，GBK）、/suggest/key=（联想）</li>
+ *     <li>腾讯 /q=（行情，GBK）、/s3/（smartbox 联想）</li>
+ * </ul>
+ * 价格来自 {@link MockMarket} 的随机游走。可注入固定延迟与抖动、按比例返回错误（500 或直接断开连接），
+ * 以及每秒请求数上限（超出返回 429）。
+ * <p>
+ * 启动：{@code gradlew runMock --args="--port 8600 --symbols 3000 --latency 40 --jitter 20 --errorRate 0.01 --maxRps 50"}；
+ * 应用或基准测试设置 endpoint.default=http://127.0.0.1:8600 即连接本服务（见 Endpoints）。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+public class MockExchangeServer {
+
+    private static final Logger LOG = LogManager.getLogger(MockExchangeServer.class);
+
+    private static final Charset GBK = Charset.forName("GBK");
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Asia/Shanghai");
+    private static final DateTimeFormatter SINA_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter SINA_TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final DateTimeFormatter TENCENT_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final Options options;
+    private final MockMarket market;
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService ticker;
+
+    // 每秒请求数限制的当前窗口
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    /**
+     * @param port           监听端口，0 表示随机端口
+     * @param symbols        预先生成的股票数
+     * @param tickMillis     价格游走间隔
+     * @param latencyMillis  每个请求的固定延迟
+     * @param jitterMillis   在固定延迟之上随机增加 0 ~ jitter 毫秒
+     * @param errorRate      注入错误的比例，0 ~ 1
+     * @param maxRps         每秒请求数上限，0 表示不限制
+     */
+    public record Options(int port, int symbols, long tickMillis, int latencyMillis, int jitterMillis,
+                          double errorRate, int maxRps) {
+
+        public static Options defaults() {
+            return new Options(8600, 3000, 1000, 0, 0, 0, 0);
+        }
+
+        /**
+         * 解析 --name value 形式的参数，未给出的取默认值
+         */
+        public static Options parse(String[] args) {
+            Map<String, String> m = new HashMap<>();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                m.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+            }
+            Options d = defaults();
+            return new Options(
+                    Integer.parseInt(m.getOrDefault("port", String.valueOf(d.port))),
+                    Integer.parseInt(m.getOrDefault("symbols", String.valueOf(d.symbols))),
+                    Long.parseLong(m.getOrDefault("tick", String.valueOf(d.tickMillis))),
+                    Integer.parseInt(m.getOrDefault("latency", String.valueOf(d.latencyMillis))),
+                    Integer.parseInt(m.getOrDefault("jitter", String.valueOf(d.jitterMillis))),
+                    Double.parseDouble(m.getOrDefault("errorRate", String.valueOf(d.errorRate))),
+                    Integer.parseInt(m.getOrDefault("maxRps", String.valueOf(d.maxRps))));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        MockExchangeServer server = start(Options.parse(args));
+        LOG.info("mock exchange listening on {}, options: {}", server.baseUrl(), server.options);
+    }
+
+    public static MockExchangeServer start(Options options) throws IOException {
+        return new MockExchangeServer(options);
+    }
+
+    private MockExchangeServer(Options options) throws IOException {
+        this.options = options;
+        this.market = new MockMarket(options.symbols(), 20261018L);
+
+        AtomicInteger n = new AtomicInteger();
+        this.workers = Executors.newCachedThreadPool(r -> new Thread(r, "mock-http-" + n.incrementAndGet()));
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mock-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(market::step, options.tickMillis(), options.tickMillis(), TimeUnit.MILLISECONDS);
+
+        // 关闭 Nagle，否则响应头与响应体分两次写出时会叠加约 40ms 的延迟确认，掩盖注入的延迟
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.port()), 128);
+        server.createContext("/", this::handle);
+        server.setExecutor(workers);
+        server.start();
+    }
+
+    /**
+     * 形如 http://127.0.0.1:8600，可直接作为 endpoint.default 的取值
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        ticker.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long throttled() {
+        return throttled.get();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        requests.incrementAndGet();
+        try (ex) {
+            if (throttle()) {
+                throttled.incrementAndGet();
+                send(ex, 429, "Too Many Requests", StandardCharsets.UTF_8);
+                return;
+            }
+            delay();
+            if (options.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < options.errorRate()) {
+                injectedErrors.incrementAndGet();
+                // 一半返回 500，一半不写响应直接关闭，模拟连接被重置
+                if (ThreadLocalRandom.current().nextBoolean()) {
+                    send(ex, 500, "Internal Server Error", StandardCharsets.UTF_8);
+                }
+                return;
+            }
+
+            String path = ex.getRequestURI().getRawPath();
+            String query = ex.getRequestURI().getRawQuery();
+            if (path.startsWith("/api/qt/ulist.np/get")) {
+                send(ex, 200, ulist(param(query, "secids")), StandardCharsets.UTF_8);
+            } else if (path.startsWith("/api/qt/stock/trends2/get")) {
+                send(ex, 200, trends(param(query, "secid")), StandardCharsets.UTF_8);
+            } else if (path.startsWith("/list=")) {
+                send(ex, 200, sinaQuotes(decode(path.substring("/list=".length()))), GBK);
+            } else if (path.startsWith("/suggest/key=")) {
+                send(ex, 200, sinaSuggest(decode(path.substring("/suggest/key=".length()))), StandardCharsets.UTF_8);
+            } else if (path.startsWith("/q=")) {
+                send(ex, 200, tencentQuotes(decode(path.substring("/q=".length()))), GBK);
+            } else if (path.startsWith("/s3/")) {
+                send(ex, 200, tencentSuggest(param(query, "q")), StandardCharsets.UTF_8);
+            } else {
+                send(ex, 404, "Not Found", StandardCharsets.UTF_8);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOG.warn("mock handle error: {}", e.toString());
+        }
+    }
+
+    private boolean throttle() {
+        if (options.maxRps() <= 0) return false;
+        long second = System.currentTimeMillis() / 1000;
+        long current = windowSecond.get();
+        if (second != current && windowSecond.compareAndSet(current, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() > options.maxRps();
+    }
+
+    private void delay() throws InterruptedException {
+        long millis = options.latencyMillis();
+        if (options.jitterMillis() > 0) {
+            millis += ThreadLocalRandom.current().nextInt(options.jitterMillis() + 1);
+        }
+        if (millis > 0) Thread.sleep(millis);
+    }
+
+    // ========= 东方财富 =========
+
+    private String ulist(String secids) {
+        StringBuilder sb = new StringBuilder(256 + secids.length() * 16);
+        StringBuilder diff = new StringBuilder();
+        int total = 0;
+        long ts = System.currentTimeMillis() / 1000;
+        for (String secid : secids.split(",")) {
+            int dot = secid.indexOf('.');
+            if (dot <= 0) continue;
+            MockMarket.Symbol s = market.get(secid.substring(0, dot), secid.substring(dot + 1));
+            MockMarket.Snapshot snap = s.snapshot();
+            if (total++ > 0) diff.append(',');
+            diff.append(String.format(Locale.ROOT,
+                    "{\"f2\":%.2f,\"f5\":%d,\"f6\":%.1f,\"f12\":\"%s\",\"f13\":%s,\"f14\":\"%s\",\"f18\":%.2f,\"f124\":%d}",
+                    snap.price(), snap.volume(), snap.amount(), s.code, s.market, s.name, s.preClose, ts));
+        }
+        sb.append("{\"rc\":0,\"rt\":11,\"svr\":177617938,\"lt\":1,\"full\":1,\"dlmkts\":\"\",\"data\":{\"total\":")
+                .append(total).append(",\"diff\":[").append(diff).append("]}}");
+        return sb.toString();
+    }
+
+    /**
+     * 从开盘到当前分钟的分钟线（收盘后为全天 241 根），最后一根的收盘价为当前价
+     */
+    private String trends(String secid) {
+        int dot = secid.indexOf('.');
+        if (dot <= 0) return "{\"rc\":0,\"data\":null}";
+        MockMarket.Symbol s = market.get(secid.substring(0, dot), secid.substring(dot + 1));
+        MockMarket.Snapshot snap = s.snapshot();
+
+        LocalDateTime now = LocalDateTime.now(MARKET_ZONE);
+        int bars = barsUntil(now.getHour() * 60 + now.getMinute());
+        String date = now.toLocalDate().toString();
+
+        StringBuilder sb = new StringBuilder(bars * 64 + 512);
+        sb.append("{\"rc\":0,\"rt\":10,\"svr\":181669437,\"lt\":1,\"full\":1,\"dlmkts\":\"\",\"data\":{")
+                .append("\"code\":\"").append(s.code).append("\",\"market\":").append(s.market)
+                .append(",\"type\":2,\"status\":0,\"name\":\"").append(s.name).append("\",\"decimal\":2,")
+                .append("\"preSettlement\":0.0,\"preClose\":").append(String.format(Locale.ROOT, "%.2f", s.preClose))
+                .append(",\"trendsTotal\":241,\"kind\":1,\"trends\":[");
+        // 以当前价为终点倒推，保证最后一根与批量接口一致
+        double[] closes = new double[bars];
+        double p = snap.price();
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        for (int i = bars - 1; i >= 0; i--) {
+            closes[i] = p;
+            p = Math.min(Math.max(MockMarket.round2(p * (1 + r.nextGaussian() * 0.001)), s.preClose * 0.9), s.preClose * 1.1);
+        }
+        long lots = Math.max(snap.volume() / bars, 1);
+        double sum = 0;
+        for (int i = 0; i < bars; i++) {
+            int minute = i <= 120 ? 9 * 60 + 30 + i : 13 * 60 + (i - 120);
+            double close = closes[i];
+            double open = i == 0 ? s.open : closes[i - 1];
+            sum += close;
+            if (i > 0) sb.append(',');
+            sb.append(String.format(Locale.ROOT, "\"%s %02d:%02d,%.2f,%.2f,%.2f,%.2f,%d,%.1f,%.3f\"",
+                    date, minute / 60, minute % 60, open, close, Math.max(open, close), Math.min(open, close),
+                    lots, lots * 100 * close, sum / (i + 1)));
+        }
+        sb.append("]}}");
+        return sb.toString();
+    }
+
+    /**
+     * trends2 以结束分钟标记：9:30 集合竞价 1 根，上午 9:31 ~ 11:30 共 120 根，下午 13:01 ~ 15:00 共 120 根
+     */
+    private static int barsUntil(int minuteOfDay) {
+        if (minuteOfDay < 9 * 60 + 30) return 241;
+        if (minuteOfDay <= 11 * 60 + 30) return minuteOfDay - (9 * 60 + 30) + 1;
+        if (minuteOfDay <= 13 * 60) return 121;
+        if (minuteOfDay <= 15 * 60) return 121 + minuteOfDay - 13 * 60;
+        return 241;
+    }
+
+    // ========= 新浪 =========
+
+    private String sinaQuotes(String list) {
+        LocalDateTime now = LocalDateTime.now(MARKET_ZONE);
+        String date = SINA_DATE.format(now);
+        String time = SINA_TIME.format(now);
+        StringBuilder sb = new StringBuilder();
+        for (String symbol : list.split(",")) {
+            MockMarket.Symbol s = bySymbol(symbol);
+            if (s == null) {
+                sb.append("var hq_str_").append(symbol).append("=\"\";\n");
+                continue;
+            }
+            MockMarket.Snapshot snap = s.snapshot();
+            sb.append("var hq_str_").append(symbol).append("=\"").append(s.name)
+                    .append(String.format(Locale.ROOT, ",%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%.3f",
+                            s.open, s.preClose, snap.price(), snap.high(), snap.low(),
+                            snap.price() - 0.01, snap.price() + 0.01, snap.volume() * 100, snap.amount()));
+            // 五档买卖盘：数量,价格 ×10
+            for (int i = 0; i < 10; i++) {
+                sb.append(String.format(Locale.ROOT, ",%d,%.3f", 100 * (i + 1), snap.price() + (i < 5 ? -0.01 : 0.01) * (i % 5 + 1)));
+            }
+            sb.append(',').append(date).append(',').append(time).append(",00\";\n");
+        }
+        return sb.toString();
+    }
+
+    private String sinaSuggest(String key) {
+        StringBuilder sb = new StringBuilder("var suggestvalue=\"");
+        for (MockMarket.Symbol s : market.search(key, 10)) {
+            sb.append(key).append(",11,").append(s.code).append(',').append(s.prefixed()).append(',')
+                    .append(s.name).append(",,").append(s.name).append(",99,1,,,;");
+        }
+        return sb.append("\";").toString();
+    }
+
+    // ========= 腾讯 =========
+
+    private String tencentQuotes(String list) {
+        String time = TENCENT_TIME.format(LocalDateTime.now(MARKET_ZONE));
+        StringBuilder sb = new StringBuilder();
+        for (String symbol : list.split(",")) {
+            MockMarket.Symbol s = bySymbol(symbol);
+            if (s == null) {
+                sb.append("v_pv_none_match=\"1\";\n");
+                continue;
+            }
+            MockMarket.Snapshot snap = s.snapshot();
+            String[] f = new String[50];
+            Arrays.fill(f, "0");
+            f[0] = "1".equals(s.market) ? "1" : "51";
+            f[1] = s.name;
+            f[2] = s.code;
+            f[3] = String.format(Locale.ROOT, "%.2f", snap.price());
+            f[4] = String.format(Locale.ROOT, "%.2f", s.preClose);
+            f[5] = String.format(Locale.ROOT, "%.2f", s.open);
+            f[6] = String.valueOf(snap.volume());
+            f[30] = time;
+            f[31] = String.format(Locale.ROOT, "%.2f", snap.price() - s.preClose);
+            f[32] = String.format(Locale.ROOT, "%.2f", (snap.price() - s.preClose) / s.preClose * 100);
+            f[33] = String.format(Locale.ROOT, "%.2f", snap.high());
+            f[34] = String.format(Locale.ROOT, "%.2f", snap.low());
+            f[36] = String.valueOf(snap.volume());
+            // 成交额单位万元
+            f[37] = String.format(Locale.ROOT, "%.0f", snap.amount() / 10000);
+            sb.append("v_").append(symbol).append("=\"").append(String.join("~", f)).append("\";\n");
+        }
+        return sb.toString();
+    }
+
+    private String tencentSuggest(String key) {
+        StringBuilder sb = new StringBuilder("v_hint=\"");
+        List<MockMarket.Symbol> found = market.search(key, 10);
+        if (found.isEmpty()) return sb.append("N\"").toString();
+        for (int i = 0; i < found.size(); i++) {
+            MockMarket.Symbol s = found.get(i);
+            if (i > 0) sb.append('^');
+            sb.append(s.prefixed(), 0, 2).append('~').append(s.code).append('~')
+                    .append(unicodeEscape(s.name)).append("~~GP-A");
+        }
+        return sb.append('"').toString();
+    }
+
+    // ========= 工具 =========
+
+    /**
+     * sh600000 / sz000001 形式的代码；其他市场返回 null
+     */
+    private MockMarket.Symbol bySymbol(String symbol) {
+        if (symbol.length() < 3) return null;
+        if (symbol.startsWith("sh")) return market.get("1", symbol.substring(2));
+        if (symbol.startsWith("sz")) return market.get("0", symbol.substring(2));
+        return null;
+    }
+
+    private static String unicodeEscape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() * 6);
+        for (char c : s.toCharArray()) {
+            if (c < 128) sb.append(c);
+            else sb.append(String.format("\\u%04x", (int) c));
+        }
+        return sb.toString();
+    }
+
+    private static String param(String query, String name) {
+        if (query == null) return "";
+        for (String kv : query.split("&")) {
+            int eq = kv.indexOf('=');
+            if (eq > 0 && kv.substring(0, eq).equals(name)) {
+                return decode(kv.substring(eq + 1));
+            }
+        }
+        return "";
+    }
+
+    private static String decode(String s) {
+        return URLDecoder.decode(s, StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange ex, int status, String body, Charset charset) throws IOException {
+        byte[] bytes = body.getBytes(charset);
+        String type = charset == GBK ? "application/javascript; charset=GBK" : "text/plain; charset=utf-8";
+        ex.getResponseHeaders().set("Content-Type", type);
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package indi.yiyi.stockmonitor.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模拟行情：每只股票的价格按随机游走变化
+ * <p>
+ * 启动时生成 symbols 只股票（沪市 600000 起、深市 000001 起交替编号），供联想接口搜索；
+ * 请求中出现的其他代码按代码生成确定的初始价格，同样参与游走。涨跌幅限制在昨收的 ±10% 以内。
+ *
+ * @author Nonoas
+ * @date 2026/10/18
+ * @since 1.4.0
+ */
+class MockMarket {
+
+    private static final String[] NAME_PREFIX = {"华夏", "东方", "中信", "长江", "南方", "海通", "国泰", "招商", "平安", "广发"};
+    private static final String[] NAME_SUFFIX = {"科技", "银行", "能源", "医药", "电子", "地产", "证券", "汽车", "传媒", "制造"};
+
+    private final Map<String, Symbol> symbols = new ConcurrentHashMap<>();
+    private final List<Symbol> listed = new ArrayList<>();
+    private final Random random;
+
+    MockMarket(int count, long seed) {
+        this.random = new Random(seed);
+        for (int i = 0; i < count; i++) {
+            String market = (i & 1) == 0 ? "1" : "0";
+            String code = "1".equals(market)
+                    ? String.valueOf(600000 + i / 2)
+                    : String.format("%06d", 1 + i / 2);
+            listed.add(get(market, code));
+        }
+    }
+
+    /**
+     * @param market 0 深市，1 沪市
+     */
+    Symbol get(String market, String code) {
+        return symbols.computeIfAbsent(market + "." + code, k -> new Symbol(market, code));
+    }
+
+    /**
+     * 所有股票走一步
+     */
+    void step() {
+        for (Symbol s : symbols.values()) {
+            double g;
+            synchronized (random) {
+                g = random.nextGaussian();
+            }
+            s.step(g);
+        }
+    }
+
+    /**
+     * 按代码前缀或名称包含关键字搜索
+     */
+    List<Symbol> search(String key, int limit) {
+        List<Symbol> result = new ArrayList<>(limit);
+        for (Symbol s : listed) {
+            if (s.code.startsWith(key) || s.name.contains(key)) {
+                result.add(s);
+                if (result.size() == limit) break;
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return symbols.size();
+    }
+
+    static final class Symbol {
+        final String market;
+        final String code;
+        final String name;
+        final double preClose;
+        final double open;
+
+        private double price;
+        private double high;
+        private double low;
+        private long volume;
+        private double amount;
+
+        Symbol(String market, String code) {
+            this.market = market;
+            this.code = code;
+            int h = Math.abs(code.hashCode() * 31 + market.hashCode());
+            this.name = NAME_PREFIX[h % NAME_PREFIX.length] + NAME_SUFFIX[(h / 10) % NAME_SUFFIX.length];
+            this.preClose = round2(3 + (h % 19700) / 100.0);
+            this.open = preClose;
+            this.price = preClose;
+            this.high = preClose;
+            this.low = preClose;
+        }
+
+        synchronized void step(double gaussian) {
+            double next = round2(price * (1 + gaussian * 0.002));
+            next = Math.min(Math.max(next, round2(preClose * 0.9)), round2(preClose * 1.1));
+            price = next;
+            high = Math.max(high, next);
+            low = Math.min(low, next);
+            long lots = 1 + (long) (Math.abs(gaussian) * 200);
+            volume += lots;
+            amount += lots * 100 * next;
+        }
+
+        synchronized Snapshot snapshot() {
+            return new Snapshot(price, high, low, volume, amount);
+        }
+
+        /**
+         * 带市场前缀的代码，如 sh600000
+         */
+        String prefixed() {
+            return ("1".equals(market) ? "sh" : "sz") + code;
+        }
+    }
+
+    /**
+     * @param volume 成交量，单位手
+     * @param amount 成交额，单位元
+     */
+    record Snapshot(double price, double high, double low, long volume, double amount) {
+    }
+
+    static double round2(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+}